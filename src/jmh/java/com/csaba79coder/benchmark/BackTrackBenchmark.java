@@ -0,0 +1,100 @@
+package com.csaba79coder.benchmark;
+
+import com.csaba79coder.model.BackTrack;
+import com.csaba79coder.model.GraphSearch;
+import com.csaba79coder.model.HungryKnightState;
+import com.csaba79coder.model.IterativeDeepeningSearch;
+import com.csaba79coder.model.Node;
+import com.csaba79coder.model.ParallelBackTrack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the Backtrack family on small instances.
+ * The depth limit is the length of the shortest solution plus 2, so every variant finds a solution.
+ * The basic Backtrack (no limit, no memory) is not benchmarked,
+ * because it never terminates on these problems: both state spaces contain cycles.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BackTrackBenchmark {
+
+    public enum Algorithm {
+        DEPTH_LIMITED,
+        MEMORY,
+        MEMORY_TRANSPOSITION_TABLE,
+        ITERATIVE_DEEPENING,
+        PARALLEL;
+
+        GraphSearch create(Node startNode, int limit) {
+            return switch (this) {
+                case DEPTH_LIMITED -> new BackTrack(startNode, limit);
+                case MEMORY -> new BackTrack(startNode, limit, true);
+                case MEMORY_TRANSPOSITION_TABLE -> new BackTrack(startNode, limit, true, 1 << 16);
+                case ITERATIVE_DEEPENING -> new IterativeDeepeningSearch(startNode);
+                case PARALLEL -> new ParallelBackTrack(startNode, limit, true);
+            };
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class KnightProblem {
+        @Param({"DEPTH_LIMITED", "MEMORY", "MEMORY_TRANSPOSITION_TABLE", "ITERATIVE_DEEPENING", "PARALLEL"})
+        public Algorithm algorithm;
+
+        @Param({"4", "6", "8"})
+        public int boardSize;
+
+        Node startNode;
+        int limit;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            startNode = new Node(new HungryKnightState(boardSize));
+            limit = Problems.shortestSolutionLength(startNode) + 2;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class MonksAndCannibalsProblem {
+        @Param({"DEPTH_LIMITED", "MEMORY", "MEMORY_TRANSPOSITION_TABLE", "ITERATIVE_DEEPENING", "PARALLEL"})
+        public Algorithm algorithm;
+
+        @Param({"3:3", "4:3"})
+        public String population;
+
+        Node startNode;
+        int limit;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            startNode = new Node(Problems.monksAndCannibals(population));
+            limit = Problems.shortestSolutionLength(startNode) + 2;
+        }
+    }
+
+    @Benchmark
+    public Node hungryKnight(KnightProblem problem) {
+        return problem.algorithm.create(problem.startNode, problem.limit).search();
+    }
+
+    @Benchmark
+    public Node monksAndCannibals(MonksAndCannibalsProblem problem) {
+        return problem.algorithm.create(problem.startNode, problem.limit).search();
+    }
+}
@@ -0,0 +1,99 @@
+package com.csaba79coder.benchmark;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Runs the benchmarks with the GC profiler, so the allocation rate per operation is reported too,
+ * and writes the results into benchmarks/results: the full JMH report as JSON (e.g., for jmh.morethan.io),
+ * and a summary as CSV, one line per benchmark, mode and parameters, with the score, its error, the latency percentiles
+ * (sample mode only) and the allocation per operation.
+ * The summary holds nothing about the machine (like the path of the JVM), so it can be committed as a baseline
+ * (see benchmarks/baseline).
+ * The usual JMH command line options can be given, e.g. a benchmark name pattern or -p boardSize=8.
+ */
+public class BenchmarkRunner {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9}; // The percentile columns of the summary.
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        if (commandLineOptions.shouldHelp()) {
+            commandLineOptions.showHelp();
+            return;
+        }
+        if (commandLineOptions.shouldList()) {
+            new Runner(commandLineOptions).list();
+            return;
+        }
+        Path resultDirectory = Path.of("benchmarks", "results");
+        Files.createDirectories(resultDirectory);
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLineOptions)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultDirectory.resolve("jmh-" + timestamp + ".json").toString());
+        Collection<RunResult> results = new Runner(options.build()).run();
+        Files.write(resultDirectory.resolve("jmh-" + timestamp + ".csv"), summarize(results));
+    }
+
+    // The columns are the name of the benchmark method, the mode, the parameters (name=value, separated by spaces),
+    // the score, its error (99.9% confidence), the unit, the percentiles of the sampled times (in the same unit,
+    // empty in the other modes), and the allocation in bytes per operation.
+    static List<String> summarize(Collection<RunResult> results) {
+        List<String> lines = new ArrayList<>();
+        lines.add("benchmark,mode,params,score,error,unit,p50,p90,p99,p99.9,allocBytesPerOp");
+        for (RunResult result : results) {
+            BenchmarkParams params = result.getParams();
+            StringBuilder paramText = new StringBuilder();
+            for (String key : params.getParamsKeys()) {
+                if (!paramText.isEmpty()) {
+                    paramText.append(' ');
+                }
+                paramText.append(key).append('=').append(params.getParam(key));
+            }
+            String benchmark = params.getBenchmark();
+            Result<?> primary = result.getPrimaryResult();
+            Result<?> allocation = result.getSecondaryResults().get("gc.alloc.rate.norm");
+            StringBuilder line = new StringBuilder(String.join(",",
+                    benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1),
+                    params.getMode().shortLabel(), paramText.toString(), format(primary.getScore()),
+                    format(primary.getScoreError()), primary.getScoreUnit()));
+            for (double percentile : PERCENTILES) {
+                line.append(',');
+                if (params.getMode() == Mode.SampleTime) {
+                    line.append(format(primary.getStatistics().getPercentile(percentile)));
+                }
+            }
+            line.append(',').append(allocation == null ? "" : format(allocation.getScore()));
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    // Six significant digits, so the percentiles of fast operations (fractions of a microsecond in ms/op) are kept too.
+    private static String format(double value) {
+        return Double.isNaN(value) || Double.isInfinite(value) ? ""
+                : new BigDecimal(value).round(new MathContext(6)).stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,116 @@
+package com.csaba79coder.benchmark;
+
+import com.csaba79coder.model.AStarSearch;
+import com.csaba79coder.model.BidirectionalSearch;
+import com.csaba79coder.model.BreadthFirstSearch;
+import com.csaba79coder.model.DepthFirstSearch;
+import com.csaba79coder.model.EncodedVisitedSet;
+import com.csaba79coder.model.GraphSearch;
+import com.csaba79coder.model.GreedyBestFirstSearch;
+import com.csaba79coder.model.HashDistributedAStarSearch;
+import com.csaba79coder.model.Heuristic;
+import com.csaba79coder.model.HungryKnightHeuristic;
+import com.csaba79coder.model.HungryKnightState;
+import com.csaba79coder.model.MonksAndCannibalsHeuristic;
+import com.csaba79coder.model.Node;
+import com.csaba79coder.model.ParallelBreadthFirstSearch;
+import com.csaba79coder.model.UniformCostSearch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the graph searches that keep a closed set, on larger instances.
+ * The monks and cannibals populations are given as "monks:cannibals".
+ * With a two-person boat, equal populations above 3 have no solution, so one cannibal less is used for them.
+ * Depth-first search without cycle detection is not benchmarked,
+ * because it never terminates on these problems: both state spaces contain cycles.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphSearchBenchmark {
+
+    public enum Algorithm {
+        DEPTH_FIRST,
+        DEPTH_FIRST_ENCODED,
+        BREADTH_FIRST,
+        BIDIRECTIONAL,
+        UNIFORM_COST,
+        GREEDY,
+        A_STAR,
+        PARALLEL_BREADTH_FIRST,
+        HASH_DISTRIBUTED_A_STAR;
+
+        GraphSearch create(Node startNode, Heuristic heuristic) {
+            return switch (this) {
+                case DEPTH_FIRST -> new DepthFirstSearch(startNode, true);
+                case DEPTH_FIRST_ENCODED -> new DepthFirstSearch(startNode, true, EncodedVisitedSet::new);
+                case BREADTH_FIRST -> new BreadthFirstSearch(startNode);
+                case BIDIRECTIONAL -> new BidirectionalSearch(startNode);
+                case UNIFORM_COST -> new UniformCostSearch(startNode);
+                case GREEDY -> new GreedyBestFirstSearch(startNode, heuristic);
+                case A_STAR -> new AStarSearch(startNode, heuristic);
+                case PARALLEL_BREADTH_FIRST -> new ParallelBreadthFirstSearch(startNode);
+                case HASH_DISTRIBUTED_A_STAR -> new HashDistributedAStarSearch(startNode, heuristic);
+            };
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class KnightProblem {
+        @Param({"DEPTH_FIRST", "DEPTH_FIRST_ENCODED", "BREADTH_FIRST", "BIDIRECTIONAL", "UNIFORM_COST", "GREEDY",
+                "A_STAR", "PARALLEL_BREADTH_FIRST", "HASH_DISTRIBUTED_A_STAR"})
+        public Algorithm algorithm;
+
+        @Param({"8", "64", "256"})
+        public int boardSize;
+
+        Node startNode;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            startNode = new Node(new HungryKnightState(boardSize));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class MonksAndCannibalsProblem {
+        @Param({"DEPTH_FIRST", "DEPTH_FIRST_ENCODED", "BREADTH_FIRST", "BIDIRECTIONAL", "UNIFORM_COST", "GREEDY",
+                "A_STAR", "PARALLEL_BREADTH_FIRST", "HASH_DISTRIBUTED_A_STAR"})
+        public Algorithm algorithm;
+
+        @Param({"3:3", "10:9", "50:49"})
+        public String population;
+
+        Node startNode;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            startNode = new Node(Problems.monksAndCannibals(population));
+        }
+    }
+
+    @Benchmark
+    public Node hungryKnight(KnightProblem problem) {
+        return problem.algorithm.create(problem.startNode, new HungryKnightHeuristic()).search();
+    }
+
+    @Benchmark
+    public Node monksAndCannibals(MonksAndCannibalsProblem problem) {
+        return problem.algorithm.create(problem.startNode, new MonksAndCannibalsHeuristic()).search();
+    }
+}
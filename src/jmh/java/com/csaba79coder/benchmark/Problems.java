@@ -0,0 +1,28 @@
+package com.csaba79coder.benchmark;
+
+import com.csaba79coder.model.BreadthFirstSearch;
+import com.csaba79coder.model.MonksAndCannibalsState;
+import com.csaba79coder.model.Node;
+
+/**
+ * Helpers shared by the benchmarks.
+ */
+final class Problems {
+    private Problems() {
+    }
+
+    // Parses a population given as "monks:cannibals", e.g. "3:3".
+    static MonksAndCannibalsState monksAndCannibals(String population) {
+        String[] counts = population.split(":");
+        if (counts.length != 2) {
+            throw new IllegalArgumentException("The population must be given as monks:cannibals, not " + population);
+        }
+        return new MonksAndCannibalsState(Integer.parseInt(counts[0]), Integer.parseInt(counts[1]));
+    }
+
+    // Returns the length of the shortest solution, or -1 if there is no solution.
+    static int shortestSolutionLength(Node startNode) {
+        Node terminalNode = new BreadthFirstSearch(startNode).search();
+        return terminalNode == null ? -1 : terminalNode.getDepth();
+    }
+}
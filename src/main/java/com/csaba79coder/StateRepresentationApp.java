@@ -2,9 +2,12 @@ package com.csaba79coder;
 
 import com.csaba79coder.model.*;
 
+import java.time.Duration;
+import java.util.stream.IntStream;
+
 public class StateRepresentationApp {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
         Node startNode;
         GraphSearch searcher;
 
@@ -18,6 +21,18 @@ public class StateRepresentationApp {
         searcher = new DepthFirstSearch(startNode, true);
         searcher.printSolution(searcher.search());
 
+        System.out.println("Using iterative deepening search, no depth limit needs to be given.");
+        searcher = new IterativeDeepeningSearch(startNode);
+        searcher.printSolution(searcher.search());
+
+        System.out.println("Using A* search with the knight-distance heuristic.");
+        searcher = new AStarSearch(startNode, new HungryKnightHeuristic());
+        searcher.printSolution(searcher.search());
+
+        System.out.println("Using bidirectional breadth-first search.");
+        searcher = new BidirectionalSearch(startNode);
+        searcher.printSolution(searcher.search());
+
         System.out.println("Solving the 3 monks and 3 cannibals problem.");
         startNode = new Node(new MonksAndCannibalsState(3, 3));
         System.out.println("Using a depth-limited, memory-based backtrack search with a depth limit of 15.");
@@ -27,5 +42,23 @@ public class StateRepresentationApp {
         System.out.println("Using depth-first search with cycle detection.");
         searcher = new DepthFirstSearch(startNode, true);
         searcher.printSolution(searcher.search());
+
+        System.out.println("Using breadth-first search.");
+        searcher = new BreadthFirstSearch(startNode);
+        searcher.printSolution(searcher.search());
+
+        System.out.println("Using IDA* search with the people-left heuristic.");
+        searcher = new IterativeDeepeningSearch(startNode, new MonksAndCannibalsHeuristic());
+        searcher.printSolution(searcher.search());
+
+        System.out.println("Using A* search with the people-left heuristic.");
+        searcher = new AStarSearch(startNode, new MonksAndCannibalsHeuristic());
+        searcher.printSolution(searcher.search());
+
+        System.out.println("Solving the Hungry Knight problem on boards from 4x4 to 8x8 as a batch, on virtual threads.");
+        BatchSolver batchSolver = new BatchSolver(BreadthFirstSearch::new, 4, Duration.ofSeconds(10));
+        batchSolver.solve(IntStream.rangeClosed(4, 8).mapToObj(HungryKnightState::new), BatchSolver.Order.INPUT,
+                result -> System.out.println("Board " + (result.index() + 4) + ": " + result.status() +
+                        (result.terminalNode() == null ? "" : ", " + result.terminalNode().getDepth() + " steps")));
     }
 }
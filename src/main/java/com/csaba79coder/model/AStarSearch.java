@@ -0,0 +1,11 @@
+package com.csaba79coder.model;
+
+/**
+ * A class implementing the A* algorithm: best-first search with f = g + h.
+ * If the heuristic is admissible, the returned solution is optimal (has the fewest operators).
+ */
+public class AStarSearch extends BestFirstSearch {
+    public AStarSearch(Node startNode, Heuristic heuristic) {
+        super(startNode, heuristic, 1, 1);
+    }
+}
@@ -21,6 +21,48 @@ public abstract class AbstractState implements Cloneable {
     //     }
     // }
     abstract boolean isSuperOperator(int i);
+    // Returns true if the i-th base operator can be applied to the internal state, without changing the internal state.
+    // Searches call this before cloning the state, so no clone is made for inapplicable operators.
+    // The default implementation tries the operator on a clone.
+    // Override it if applicability can be decided directly from the fields.
+    boolean isApplicable(int i) {
+        return ((AbstractState) clone()).isSuperOperator(i);
+    }
+    // Returns true if isApplicable is overridden and decides without applying the operator.
+    // Searches only call isApplicable before applying an operator if this returns true,
+    // otherwise the check would cost the same clone and application as the operator itself.
+    // Override it together with isApplicable.
+    boolean hasApplicabilityCheck() {
+        return false;
+    }
+    // In-place operators: the i-th operator is applied to the internal state by isSuperOperator(i),
+    // and its effect is reverted by undoSuperOperator(i), so no clone is needed to explore a successor.
+    // Override isUndoable and undoSuperOperator together.
+    boolean isUndoable() {
+        return false;
+    }
+    // Reverts the effect of the i-th base operator.
+    // It may only be called right after isSuperOperator(i) returned true on this instance.
+    void undoSuperOperator(int i) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support undoing operators.");
+    }
+    // Searches that run backward from the goal (e.g., bidirectional search) need the goal state and predecessor operators.
+    // Returns a new instance of the goal state of the problem,
+    // or null if the problem does not have a single known goal state (this is the default).
+    AbstractState getGoalState() {
+        return null;
+    }
+    // Returns the number of predecessor operators. By default, it is the number of base operators.
+    int getPredecessorOperatorCount() {
+        return getOperatorCount();
+    }
+    // The i-th predecessor operator changes the internal state to a state
+    // from which one of the base operators leads back to the current internal state.
+    // Like isSuperOperator, it returns false and leaves the internal state unchanged if it is not applicable.
+    // Override it together with getGoalState.
+    boolean isPredecessorOperator(int i) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support predecessor operators.");
+    }
     // Clone method. This method is required because we may need to undo the effects of some operators.
     // The simplest way is to clone the state, apply the operator to the clone, and check for problems.
     // If there are no issues, the clone becomes the new state for further search.
@@ -46,4 +88,50 @@ public abstract class AbstractState implements Cloneable {
     public int hashCode() {
         return super.hashCode();
     }
+    // Optional symmetry reduction: returns the canonicalizer mapping every state to the representative of its symmetry class.
+    // Visited sets can then store the representatives (see CanonicalVisitedSet), so symmetric states are only explored once.
+    // By default, every state is its own representative.
+    Canonicalizer getCanonicalizer() {
+        return Canonicalizer.IDENTITY;
+    }
+    // Optional compact encoding of the internal state into a single long.
+    // Override isEncodable, encode and decode together, if the internal state fits into 64 bits.
+    // Searches can then store the codes in primitive sets (see LongHashSet) instead of whole states.
+    // Two states must be equal if and only if their codes are equal.
+    boolean isEncodable() {
+        return false;
+    }
+    // Returns the code of the internal state.
+    long encode() {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support encoding.");
+    }
+    // Sets the internal state from a code returned by encode.
+    // Fields that are not part of the code (e.g. the problem size) are left unchanged,
+    // so decode should be called on a clone of a state of the same problem.
+    void decode(long code) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support encoding.");
+    }
+    // Optional dense indexing of the state space: every state of the problem gets an index from 0 to getStateSpaceSize() - 1.
+    // Override getStateSpaceSize, toIndex and fromIndex together.
+    // Tables with an entry for every state (see DistanceTable) can then be stored in plain arrays.
+    // Some indexes may belong to internal states that are not states (see isState).
+    // Returns the number of indexes, or 0 if the state space is not indexed (this is the default).
+    int getStateSpaceSize() {
+        return 0;
+    }
+    // Returns the index of the internal state.
+    int toIndex() {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support indexing.");
+    }
+    // Sets the internal state from an index returned by toIndex.
+    // Like decode, it should be called on a clone of a state of the same problem.
+    void fromIndex(int index) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support indexing.");
+    }
+    // Returns a code of the parameters of the problem instance (e.g., the size of the board), the same for every state
+    // of the instance. Tables built for one instance (see DistanceTable) check it, so they are not used for another one
+    // of the same class and size. Override it together with the indexing methods, if the problem has parameters.
+    long getInstanceKey() {
+        return 0;
+    }
 }
@@ -0,0 +1,74 @@
+package com.csaba79coder.model;
+
+/**
+ * A class implementing breadth-first graph search over a NodeArena.
+ * It explores the same nodes in the same order as BreadthFirstSearch, but without a Node and a state object per node:
+ * the nodes are handles into the arena, the arena is also the FIFO queue (the nodes are expanded in the order they were added),
+ * and the visited states are codes in a LongHashSet.
+ * The children are generated on a single working state, in place if the state supports undoing operators.
+ * The states have to support encoding (see AbstractState.encode).
+ * Only the solution is built as a chain of nodes, so the listeners get null for the generated, the expanded
+ * and the rejected nodes.
+ */
+public class ArenaBreadthFirstSearch extends GraphSearch {
+    private final int expectedSize; // The expected number of visited states, used to size the arena and the visited set.
+
+    public ArenaBreadthFirstSearch(Node startNode, int expectedSize) {
+        super(startNode);
+        if (!startNode.getState().isEncodable()) {
+            throw new IllegalArgumentException(startNode.getState().getClass().getSimpleName() + " does not support encoding.");
+        }
+        if (startNode.getOperatorCount() > NodeArena.MAX_OPERATOR_COUNT) {
+            throw new IllegalArgumentException("The " + startNode.getOperatorCount() + " operators of "
+                    + startNode.getState().getClass().getSimpleName() + " do not fit into a node arena.");
+        }
+        this.expectedSize = expectedSize;
+    }
+
+    public ArenaBreadthFirstSearch(Node startNode) {
+        this(startNode, 16);
+    }
+
+    @Override
+    public Node search() {
+        if (getStartNode().isTerminalNode()) {
+            return getStartNode();
+        }
+        NodeArena arena = new NodeArena(expectedSize);
+        LongHashSet visited = new LongHashSet(expectedSize);
+        AbstractState state = (AbstractState) getStartNode().getState().clone();
+        long startCode = state.encode();
+        arena.addRoot(startCode);
+        visited.add(startCode);
+        // The nodes before the head are closed, the ones after it are open.
+        for (int head = 0; head < arena.size(); head++) {
+            state.decode(arena.getState(head));
+            fireNodeExpanded(null);
+            for (int i = 0; i < state.getOperatorCount(); i++) {
+                if (state.hasApplicabilityCheck() && !state.isApplicable(i)) {
+                    continue;
+                }
+                AbstractState child = state.isUndoable() ? state : (AbstractState) state.clone();
+                if (!child.isSuperOperator(i)) {
+                    continue;
+                }
+                long childCode = child.encode();
+                boolean terminal = child.isGoalState();
+                if (child == state) {
+                    state.undoSuperOperator(i);
+                }
+                fireNodeGenerated(null);
+                if (terminal) {
+                    return arena.toNode(arena.add(head, i, childCode), getStartNode());
+                }
+                if (visited.add(childCode)) {
+                    arena.add(head, i, childCode);
+                } else {
+                    fireDuplicateRejected(null);
+                }
+            }
+            fireFrontierSizeChanged(arena.size() - head - 1);
+        }
+        return null;
+    }
+}
@@ -1,5 +1,11 @@
 package com.csaba79coder.model;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * A class implementing the Backtrack graph search algorithm.
  * It includes the three basic Backtrack algorithms:
@@ -7,15 +13,43 @@ package com.csaba79coder.model;
  * - Depth-limited Backtrack
  * - Memory-based Backtrack
  * The branch-bound Backtrack is not implemented.
+ * The memory-based version keeps the states of the current path in a hash set,
+ * so checking for a cycle costs O(1) instead of walking up the parents.
+ * The depth limit can also bound depth + heuristic instead of the depth (see IterativeDeepeningSearch).
+ * Optionally, a bounded transposition table remembers the states whose subtrees
+ * have already failed within a given depth budget, so they are not explored again.
+ * The operators are tried in index order, or in the order of a MoveOrdering (see setMoveOrdering).
  */
 public class BackTrack extends GraphSearch {
     private final int limit;
     private final boolean useMemory;
-
-    public BackTrack(Node startNode, int limit, boolean useMemory) {
+    private final int transpositionTableSize; // 0 means no transposition table.
+    private final Heuristic heuristic; // The limit bounds depth + heuristic. By default, the heuristic is 0.
+    private int nextLimit; // The smallest limit that would let the search go beyond the nodes cut off by the limit.
+    private Set<Node> path; // States of the current path, only used by the memory-based version.
+    // State -> the largest remaining depth budget within which its subtree is known to have no solution.
+    private Map<AbstractState, Integer> failedStates;
+    private long cycleCutoffs; // The number of times a state was cut off because it was already on the path.
+    private MoveOrdering moveOrdering; // Null: index order.
+    private int[][] orderBuffers = new int[0][]; // The operator order of every depth of the current path.
+
+    BackTrack(Node startNode, int limit, boolean useMemory, int transpositionTableSize, Heuristic heuristic) {
         super(startNode);
+        if (transpositionTableSize < 0) {
+            throw new IllegalArgumentException("The transposition table size cannot be negative.");
+        }
         this.limit = limit;
         this.useMemory = useMemory;
+        this.transpositionTableSize = transpositionTableSize;
+        this.heuristic = heuristic;
+    }
+
+    public BackTrack(Node startNode, int limit, boolean useMemory, int transpositionTableSize) {
+        this(startNode, limit, useMemory, transpositionTableSize, Heuristic.ZERO);
+    }
+
+    public BackTrack(Node startNode, int limit, boolean useMemory) {
+        this(startNode, limit, useMemory, 0);
     }
 
     public BackTrack(Node startNode) {
@@ -30,48 +64,127 @@ public class BackTrack extends GraphSearch {
         this(startNode, 0, useMemory);
     }
 
+    @Override
+    Heuristic getHeuristic() {
+        return heuristic;
+    }
+
+    // Sets the order in which the operators of a node are tried. Null means index order, this is the default.
+    public void setMoveOrdering(MoveOrdering moveOrdering) {
+        this.moveOrdering = moveOrdering;
+    }
+
     @Override
     public Node search() {
-        return search(getStartNode());
+        path = useMemory ? new HashSet<>() : null;
+        failedStates = transpositionTableSize > 0 ? createTranspositionTable(transpositionTableSize) : null;
+        cycleCutoffs = 0;
+        nextLimit = Integer.MAX_VALUE;
+        Node terminalNode = search(getStartNode());
+        if (terminalNode != null && moveOrdering != null) {
+            moveOrdering.solutionFound(terminalNode);
+        }
+        return terminalNode;
+    }
+
+    // After a search, returns the smallest limit with which the search would get past the nodes cut off by the limit,
+    // or Integer.MAX_VALUE if no node was cut off, i.e., a larger limit would not change the result.
+    int getNextLimit() {
+        return nextLimit;
     }
 
     private Node search(Node currentNode) {
         int depth = currentNode.getDepth();
 
-        if (limit > 0 && depth >= limit) {
+        if (limit > 0) {
+            int bound = depth + heuristic.estimate(currentNode.getState());
+
+            if (bound >= limit) {
+                nextLimit = Math.min(nextLimit, bound + 1);
+                return null;
+            }
+        }
+
+        // The state is added to the path on descent, and removed on backtrack.
+        // If it is already on the path, we are in a cycle.
+        if (useMemory && !path.add(currentNode)) {
+            cycleCutoffs++;
+            fireDuplicateRejected(currentNode);
             return null;
         }
 
-        Node currentParent = null;
+        try {
+            if (currentNode.isTerminalNode()) {
+                return currentNode;
+            }
 
-        if (useMemory) {
-            currentParent = currentNode.getParent();
-        }
+            int budget = limit > 0 ? limit - depth : Integer.MAX_VALUE;
 
-        while (currentParent != null) {
-            if (currentNode.equals(currentParent)) {
-                return null;
+            if (failedStates != null) {
+                Integer failedBudget = failedStates.get(currentNode.getState());
+
+                if (failedBudget != null && failedBudget >= budget) {
+                    fireDuplicateRejected(currentNode);
+                    return null;
+                }
             }
 
-            currentParent = currentParent.getParent();
-        }
+            long cycleCutoffsBefore = cycleCutoffs;
+            fireNodeExpanded(currentNode);
 
-        if (currentNode.isTerminalNode()) {
-            return currentNode;
-        }
+            int[] order = moveOrdering != null ? orderBuffer(depth, currentNode.getOperatorCount()) : null;
+            int operatorCount = order != null ? moveOrdering.order(currentNode.getState(), order)
+                    : currentNode.getOperatorCount();
 
-        for (int i = 0; i < currentNode.getOperatorCount(); i++) {
-            Node childNode = new Node(currentNode);
+            for (int k = 0; k < operatorCount; k++) {
+                int i = order != null ? order[k] : k;
+                Node childNode = currentNode.createChild(i);
 
-            if (childNode.isSuperOperator(i)) {
-                Node terminalNode = search(childNode);
+                if (childNode != null) {
+                    fireNodeGenerated(childNode);
+                    Node terminalNode = search(childNode);
 
-                if (terminalNode != null) {
-                    return terminalNode;
+                    if (terminalNode != null) {
+                        return terminalNode;
+                    }
                 }
             }
+
+            // A subtree cut off by the path may have a solution if it is reached on another path,
+            // so only failures without cycle cutoffs are remembered.
+            if (failedStates != null && cycleCutoffs == cycleCutoffsBefore) {
+                failedStates.merge(currentNode.getState(), budget, Math::max);
+            }
+
+            fireBacktracked(currentNode);
+            return null;
+        } finally {
+            if (useMemory) {
+                path.remove(currentNode);
+            }
+        }
+    }
+
+    // The deeper calls overwrite only their own buffers, so the order of a depth survives the search of its children.
+    private int[] orderBuffer(int depth, int operatorCount) {
+        if (depth >= orderBuffers.length) {
+            orderBuffers = Arrays.copyOf(orderBuffers, Math.max(depth + 1, orderBuffers.length * 2));
+        }
+        int[] buffer = orderBuffers[depth];
+        if (buffer == null || buffer.length < operatorCount) {
+            buffer = new int[operatorCount];
+            orderBuffers[depth] = buffer;
         }
+        return buffer;
+    }
 
-        return null;
+    // The least recently used entry is evicted when the table is full.
+    private static Map<AbstractState, Integer> createTranspositionTable(int maxSize) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<AbstractState, Integer> eldest) {
+                return size() > maxSize;
+            }
+        };
     }
 }
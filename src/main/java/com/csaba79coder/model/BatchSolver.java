@@ -0,0 +1,215 @@
+package com.csaba79coder.model;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Solves many independent problem instances, every search on its own virtual thread.
+ * The algorithm is given as a function creating the search for a start node, e.g., BreadthFirstSearch::new.
+ * At most maxConcurrency searches run at the same time. The start states are taken from the input stream
+ * only when a search can be started, so a large (or infinite) stream is not read ahead (backpressure).
+ * Every search may have a timeout. The results are passed to a consumer on the calling thread,
+ * either in the order the searches finish, or in the order of the input.
+ * In input order, a slot is only freed when its result is passed on, so a slow search holds back at most
+ * maxConcurrency finished results.
+ * The timeout is the time budget of the search (see SearchBudget), so the search itself stops when it runs out of time,
+ * and its result holds the best partial path found so far.
+ * A search checks its budget only when it notifies its listener, so the calling thread also enforces a hard deadline:
+ * if a search has not finished a grace period after its timeout, it is cancelled and interrupted,
+ * and reported as TIMED_OUT without a partial path. Its slot is freed, even if its thread keeps running for a while.
+ * If the caller stops waiting (e.g., the consumer throws or the thread is interrupted), the running searches are cancelled.
+ * A search that throws anything (an exception, or an error like a stack overflow or running out of memory)
+ * is reported as FAILED, the other searches go on.
+ */
+public class BatchSolver {
+    // The order in which the results are passed to the consumer.
+    public enum Order {
+        COMPLETION,
+        INPUT
+    }
+
+    public enum Status {
+        SOLVED,
+        NO_SOLUTION,
+        TIMED_OUT,
+        // The search was cancelled before it finished.
+        CANCELLED,
+        FAILED
+    }
+
+    // The result of one search. The index is the position of the start state in the input.
+    // The terminal node is null unless the status is SOLVED, and the error is null unless the status is FAILED.
+    // The best node is the end of the best partial path of a search that timed out (see SearchResult.bestNode).
+    public record Result(long index, AbstractState startState, Status status, Node terminalNode, Node bestNode,
+                         Throwable error, Duration elapsed) {
+    }
+
+    // A search that has been started, and whose result has not arrived yet.
+    private record Running(AbstractState startState, long startNanos, CancellationToken token, Future<?> future) {
+    }
+
+    private static final Duration MIN_GRACE = Duration.ofMillis(100);
+
+    private final Function<Node, ? extends GraphSearch> algorithm;
+    private final int maxConcurrency;
+    private final Duration timeout; // Null if the searches are not limited in time.
+    private final long hardTimeoutNanos; // The timeout plus a tenth of it, but at least MIN_GRACE.
+
+    public BatchSolver(Function<Node, ? extends GraphSearch> algorithm, int maxConcurrency, Duration timeout) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("The concurrency must be positive.");
+        }
+        this.algorithm = algorithm;
+        this.maxConcurrency = maxConcurrency;
+        this.timeout = timeout;
+        Duration grace = timeout == null ? Duration.ZERO : timeout.dividedBy(10);
+        hardTimeoutNanos = timeout == null ? Long.MAX_VALUE
+                : saturatedNanos(timeout.plus(grace.compareTo(MIN_GRACE) < 0 ? MIN_GRACE : grace));
+    }
+
+    public BatchSolver(Function<Node, ? extends GraphSearch> algorithm, int maxConcurrency) {
+        this(algorithm, maxConcurrency, null);
+    }
+
+    // By default, as many searches run at the same time as there are processors.
+    public BatchSolver(Function<Node, ? extends GraphSearch> algorithm) {
+        this(algorithm, Runtime.getRuntime().availableProcessors());
+    }
+
+    // Solves every start state of the stream, and passes the results to the consumer in the given order.
+    // Returns when every result has been passed on.
+    public void solve(Stream<? extends AbstractState> startStates, Order order, Consumer<? super Result> consumer)
+            throws InterruptedException {
+        BlockingQueue<Result> finished = new LinkedBlockingQueue<>();
+        Map<Long, Running> running = new HashMap<>();
+        Map<Long, Result> waiting = new HashMap<>(); // Finished results waiting for an earlier one in input order.
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            Iterator<? extends AbstractState> iterator = startStates.iterator();
+            long submitted = 0;
+            long delivered = 0;
+            int occupied = 0; // The number of slots taken by running searches and by results waiting in input order.
+            while (true) {
+                if (occupied < maxConcurrency && iterator.hasNext()) {
+                    AbstractState startState = iterator.next();
+                    long index = submitted++;
+                    CancellationToken token = new CancellationToken();
+                    Future<?> future = executor.submit(() -> finished.add(run(index, startState, token)));
+                    running.put(index, new Running(startState, System.nanoTime(), token, future));
+                    occupied++;
+                    continue;
+                }
+                if (occupied == 0) {
+                    break;
+                }
+                Result result = nextResult(finished, running);
+                if (order == Order.COMPLETION) {
+                    consumer.accept(result);
+                    delivered++;
+                    occupied--;
+                } else {
+                    waiting.put(result.index(), result);
+                    while ((result = waiting.remove(delivered)) != null) {
+                        consumer.accept(result);
+                        delivered++;
+                        occupied--;
+                    }
+                }
+            }
+        } finally {
+            // Only matters if the loop was left early: the searches still running stop at their next expansion.
+            for (Running search : running.values()) {
+                search.token().cancel();
+            }
+            executor.shutdown();
+        }
+    }
+
+    // Waits for the next result. If the hard deadline of a running search passes first,
+    // the search is cancelled and interrupted, and a TIMED_OUT result is returned for it.
+    // A result arriving after that is dropped.
+    private Result nextResult(BlockingQueue<Result> finished, Map<Long, Running> running) throws InterruptedException {
+        while (true) {
+            long overdueIndex = -1;
+            long earliestDeadline = Long.MAX_VALUE;
+            if (hardTimeoutNanos != Long.MAX_VALUE) {
+                for (Map.Entry<Long, Running> entry : running.entrySet()) {
+                    long deadline = entry.getValue().startNanos() + hardTimeoutNanos;
+                    if (overdueIndex == -1 || deadline - earliestDeadline < 0) {
+                        overdueIndex = entry.getKey();
+                        earliestDeadline = deadline;
+                    }
+                }
+            }
+            Result result = overdueIndex == -1 ? finished.take()
+                    : finished.poll(earliestDeadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (result != null) {
+                if (running.remove(result.index()) != null) {
+                    return result;
+                }
+                continue;
+            }
+            if (System.nanoTime() - earliestDeadline >= 0) {
+                Running overdue = running.remove(overdueIndex);
+                overdue.token().cancel();
+                overdue.future().cancel(true);
+                return new Result(overdueIndex, overdue.startState(), Status.TIMED_OUT, null, null, null,
+                        since(overdue.startNanos()));
+            }
+        }
+    }
+
+    // Solves every start state of the stream, and returns the results in the given order.
+    public List<Result> solve(Stream<? extends AbstractState> startStates, Order order) throws InterruptedException {
+        List<Result> results = new ArrayList<>();
+        solve(startStates, order, results::add);
+        return results;
+    }
+
+    // Runs one search on the current virtual thread.
+    private Result run(long index, AbstractState startState, CancellationToken token) {
+        long start = System.nanoTime();
+        try {
+            // The search gets its own copy of the start state, so the input is never changed.
+            GraphSearch searcher = algorithm.apply(new Node((AbstractState) startState.clone()));
+            SearchResult result = searcher.search(timeout == null ? SearchBudget.UNLIMITED : SearchBudget.ofTime(timeout), token);
+            Status status = switch (result.status()) {
+                case SOLVED -> Status.SOLVED;
+                case NO_SOLUTION -> Status.NO_SOLUTION;
+                case BUDGET_EXHAUSTED -> Status.TIMED_OUT;
+                case CANCELLED -> Status.CANCELLED;
+            };
+            return new Result(index, startState, status, result.terminalNode(), result.bestNode(), null, since(start));
+        } catch (Throwable e) {
+            // Every search must post a result, otherwise the calling thread would wait for it forever.
+            return new Result(index, startState, Status.FAILED, null, null, e, since(start));
+        }
+    }
+
+    private static Duration since(long start) {
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    // A timeout too long to be added to System.nanoTime() is treated as no hard deadline.
+    private static long saturatedNanos(Duration duration) {
+        try {
+            long nanos = duration.toNanos();
+            return nanos > Long.MAX_VALUE / 4 ? Long.MAX_VALUE : nanos;
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
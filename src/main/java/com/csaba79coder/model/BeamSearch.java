@@ -0,0 +1,195 @@
+package com.csaba79coder.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A class implementing beam search: a breadth-first search that keeps only the best width nodes of every depth.
+ * The nodes are scored by a heuristic, the smaller the better. The children of the kept nodes are generated,
+ * and a bounded max-heap of size width selects the best of them for the next layer, the rest is pruned.
+ * There is no closed set, so the memory usage is set by the width, not by the size of the state space:
+ * the two layers, the heap, the states in the heap, the optional duplicate filter and the paths of the kept nodes.
+ * A state is admitted to the heap at most once, so the width nodes of a layer always have different states.
+ * The duplicate filter is a fixed-size table remembering the state of the last node kept in each slot
+ * of the earlier layers, so it catches most of the states reached again (e.g., by moving back and forth),
+ * but not all of them.
+ * Beam search is neither complete nor optimal: the solution may be pruned. It returns the first terminal node found.
+ * In a state space with cycles, it may not stop if there is no solution, so use it with a SearchBudget.
+ */
+public class BeamSearch extends GraphSearch {
+    private final Heuristic heuristic;
+    private final int width;
+    private final AbstractState[] duplicateFilter; // Null if duplicates are not filtered.
+    private final List<Node> newNodes = new ArrayList<>(); // Reused buffer for the children of the expanded node.
+    // The max-heap of the best children of the current layer, the worst one at the root.
+    private final Node[] heap;
+    private final int[] scores; // The scores of the nodes of the heap.
+    private int heapSize;
+    private final Set<AbstractState> heapStates = new HashSet<>(); // The states of the nodes in the heap.
+    private long prunedNodes; // The number of children that did not fit into the beam.
+    private long duplicateNodes; // The number of children rejected by the duplicate filter.
+
+    // duplicateFilterSize is the number of slots of the duplicate filter (rounded up to a power of two), 0 for no filter.
+    public BeamSearch(Node startNode, Heuristic heuristic, int width, int duplicateFilterSize) {
+        super(startNode);
+        if (width < 1) {
+            throw new IllegalArgumentException("The width of the beam must be positive: " + width);
+        }
+        if (duplicateFilterSize < 0) {
+            throw new IllegalArgumentException("The size of the duplicate filter cannot be negative.");
+        }
+        this.heuristic = heuristic;
+        this.width = width;
+        duplicateFilter = duplicateFilterSize > 0
+                ? new AbstractState[Integer.highestOneBit(Math.max(duplicateFilterSize * 2 - 1, 1))] : null;
+        heap = new Node[width];
+        scores = new int[width];
+    }
+
+    public BeamSearch(Node startNode, Heuristic heuristic, int width) {
+        this(startNode, heuristic, width, 0);
+    }
+
+    @Override
+    Heuristic getHeuristic() {
+        return heuristic;
+    }
+
+    @Override
+    public Node search() {
+        prunedNodes = 0;
+        duplicateNodes = 0;
+        if (duplicateFilter != null) {
+            Arrays.fill(duplicateFilter, null);
+        }
+        if (getStartNode().isTerminalNode()) {
+            return getStartNode();
+        }
+        Node[] layer = new Node[width];
+        int layerSize = 1;
+        layer[0] = getStartNode();
+        remember(getStartNode());
+        while (layerSize > 0) {
+            heapSize = 0;
+            heapStates.clear();
+            for (int i = 0; i < layerSize; i++) {
+                Node currentNode = layer[i];
+                layer[i] = null;
+                currentNode.expand(newNodes);
+                fireNodeExpanded(currentNode);
+                for (Node childNode : newNodes) {
+                    fireNodeGenerated(childNode);
+                    if (childNode.isTerminalNode()) {
+                        return childNode;
+                    }
+                    if (isDuplicate(childNode) || heapStates.contains(childNode.getState())) {
+                        duplicateNodes++;
+                        fireDuplicateRejected(childNode);
+                    } else {
+                        offer(childNode);
+                    }
+                }
+            }
+            // The selected children are the next layer.
+            for (int i = 0; i < heapSize; i++) {
+                layer[i] = heap[i];
+                heap[i] = null;
+                remember(layer[i]);
+            }
+            layerSize = heapSize;
+            fireFrontierSizeChanged(layerSize);
+        }
+        return null;
+    }
+
+    // Keeps the node if the beam is not full, or if it is better than the worst node of the beam.
+    private void offer(Node node) {
+        int score = heuristic.estimate(node.getState());
+        if (heapSize < width) {
+            heapStates.add(node.getState());
+            siftUp(heapSize++, node, score);
+        } else if (score < scores[0]) {
+            prunedNodes++;
+            // The evicted state may be offered again by a later node of the layer, and it is pruned again.
+            heapStates.remove(heap[0].getState());
+            heapStates.add(node.getState());
+            siftDown(node, score);
+        } else {
+            prunedNodes++;
+        }
+    }
+
+    private void siftUp(int index, Node node, int score) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (scores[parent] >= score) {
+                break;
+            }
+            heap[index] = heap[parent];
+            scores[index] = scores[parent];
+            index = parent;
+        }
+        heap[index] = node;
+        scores[index] = score;
+    }
+
+    // Replaces the root, i.e., the worst node.
+    private void siftDown(Node node, int score) {
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && scores[child + 1] > scores[child]) {
+                child++;
+            }
+            if (scores[child] <= score) {
+                break;
+            }
+            heap[index] = heap[child];
+            scores[index] = scores[child];
+            index = child;
+        }
+        heap[index] = node;
+        scores[index] = score;
+    }
+
+    // Only the states are remembered, so the filter does not keep the paths of the nodes alive.
+    private int slot(Node node) {
+        int hash = node.getState().hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (duplicateFilter.length - 1);
+    }
+
+    private boolean isDuplicate(Node node) {
+        if (duplicateFilter == null) {
+            return false;
+        }
+        AbstractState remembered = duplicateFilter[slot(node)];
+        return remembered != null && remembered.equals(node.getState());
+    }
+
+    private void remember(Node node) {
+        if (duplicateFilter != null) {
+            duplicateFilter[slot(node)] = node.getState();
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    // After a search, returns the number of generated nodes that were dropped because they did not fit into the beam.
+    public long getPrunedNodeCount() {
+        return prunedNodes;
+    }
+
+    // After a search, returns the number of generated nodes rejected as duplicates:
+    // by the duplicate filter, or because their state was already in the heap of the layer.
+    public long getDuplicateNodeCount() {
+        return duplicateNodes;
+    }
+}
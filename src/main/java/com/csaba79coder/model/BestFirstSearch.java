@@ -0,0 +1,94 @@
+package com.csaba79coder.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A class implementing best-first graph search.
+ * Every operator costs 1, so the cost of a node (g) is its depth.
+ * The open node with the lowest f = costWeight * g + heuristicWeight * h is expanded first.
+ * - Uniform-cost search: f = g (see UniformCostSearch).
+ * - Greedy best-first search: f = h (see GreedyBestFirstSearch).
+ * - A*: f = g + h (see AStarSearch).
+ * Among nodes with equal f, the deeper one is expanded first.
+ * Open nodes are stored in an indexed heap, so a cheaper path to an open node updates it in place.
+ * A closed node is reopened if a cheaper path is found to it, so A* stays optimal with any admissible heuristic.
+ * Unlike depth-first search, the terminal node is only returned when it is expanded,
+ * otherwise the returned solution would not be optimal.
+ */
+public class BestFirstSearch extends GraphSearch {
+    private final Heuristic heuristic;
+    private final int costWeight;
+    private final int heuristicWeight;
+    private final List<Node> newNodes = new ArrayList<>(); // Reused buffer for the children of the expanded node.
+
+    public BestFirstSearch(Node startNode, Heuristic heuristic, int costWeight, int heuristicWeight) {
+        super(startNode);
+        if (costWeight < 0 || heuristicWeight < 0) {
+            throw new IllegalArgumentException("The weights cannot be negative.");
+        }
+        this.heuristic = heuristic;
+        this.costWeight = costWeight;
+        this.heuristicWeight = heuristicWeight;
+    }
+
+    @Override
+    Heuristic getHeuristic() {
+        return heuristic;
+    }
+
+    @Override
+    public Node search() {
+        IndexedNodeHeap open = new IndexedNodeHeap(); // Set of open nodes.
+        Map<Node, Integer> closed = new HashMap<>(); // Set of closed nodes with their costs.
+        open.insert(getStartNode(), priority(getStartNode()));
+        while (!open.isEmpty()) {
+            // This is the open node with the lowest f.
+            Node currentNode = open.poll();
+            if (currentNode.isTerminalNode()) {
+                return currentNode;
+            }
+            closed.put(currentNode, currentNode.getDepth());
+            currentNode.expand(newNodes);
+            fireNodeExpanded(currentNode);
+            for (Node childNode : newNodes) {
+                fireNodeGenerated(childNode);
+                int cost = childNode.getDepth();
+                Integer closedCost = closed.get(childNode);
+                if (closedCost != null) {
+                    if (cost >= closedCost) {
+                        fireDuplicateRejected(childNode);
+                        continue;
+                    }
+                    // A cheaper path was found to a closed node, so reopen it.
+                    closed.remove(childNode);
+                }
+                Node openNode = open.get(childNode);
+                if (openNode == null) {
+                    open.insert(childNode, priority(childNode));
+                } else if (cost < openNode.getDepth()) {
+                    // Without a cost weight (greedy search), f stays the same, and the tie-break of the shallower node
+                    // is higher, so the priority is only lowered if it decreases; otherwise only the path is updated.
+                    long priority = priority(childNode);
+                    if (priority < open.getPriority(childNode)) {
+                        open.decreaseKey(childNode, priority);
+                    } else {
+                        open.replace(childNode);
+                    }
+                } else {
+                    fireDuplicateRejected(childNode);
+                }
+            }
+            fireFrontierSizeChanged(open.size());
+        }
+        return null;
+    }
+
+    // The upper 32 bits hold f, the lower 32 bits break ties in favour of the deeper node.
+    private long priority(Node node) {
+        long f = (long) costWeight * node.getDepth() + (long) heuristicWeight * heuristic.estimate(node.getState());
+        return (f << 32) | (Integer.MAX_VALUE - node.getDepth());
+    }
+}
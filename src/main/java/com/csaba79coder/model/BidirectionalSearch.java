@@ -0,0 +1,99 @@
+package com.csaba79coder.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A class implementing bidirectional breadth-first search.
+ * One search runs forward from the start state, the other backward from the goal state
+ * using the predecessor operators (see AbstractState.getGoalState and AbstractState.isPredecessorOperator).
+ * The smaller frontier is expanded one whole layer at a time, until the two searches meet.
+ * If the solution has d operators, both searches only go about d/2 deep,
+ * so roughly O(b^(d/2)) states are explored instead of O(b^d).
+ * The returned solution is a shortest one.
+ */
+public class BidirectionalSearch extends GraphSearch {
+    private final AbstractState goalState;
+
+    public BidirectionalSearch(Node startNode) {
+        super(startNode);
+        goalState = startNode.getState().getGoalState();
+        if (goalState == null) {
+            throw new IllegalArgumentException(startNode.getState().getClass().getSimpleName()
+                    + " does not provide a goal state for bidirectional search.");
+        }
+    }
+
+    @Override
+    public Node search() {
+        if (getStartNode().isTerminalNode()) {
+            return getStartNode();
+        }
+        Node goalNode = new Node(goalState);
+        // Each map contains the nodes reached by one of the searches.
+        // The parents of a forward node lead to the start node, the parents of a backward node lead to the goal node.
+        Map<Node, Node> forwardReached = new HashMap<>();
+        Map<Node, Node> backwardReached = new HashMap<>();
+        List<Node> forwardFrontier = new ArrayList<>();
+        List<Node> backwardFrontier = new ArrayList<>();
+        forwardReached.put(getStartNode(), getStartNode());
+        forwardFrontier.add(getStartNode());
+        backwardReached.put(goalNode, goalNode);
+        backwardFrontier.add(goalNode);
+
+        while (!forwardFrontier.isEmpty() && !backwardFrontier.isEmpty()) {
+            boolean forward = forwardFrontier.size() <= backwardFrontier.size();
+            List<Node> frontier = forward ? forwardFrontier : backwardFrontier;
+            Map<Node, Node> reached = forward ? forwardReached : backwardReached;
+            Map<Node, Node> otherReached = forward ? backwardReached : forwardReached;
+            List<Node> nextFrontier = new ArrayList<>();
+            Node bestForward = null;
+            Node bestBackward = null;
+            // The whole layer is expanded, because the first meeting point found is not necessarily the best one.
+            for (Node currentNode : frontier) {
+                fireNodeExpanded(currentNode);
+                int operatorCount = forward ? currentNode.getOperatorCount() : currentNode.getPredecessorOperatorCount();
+                for (int i = 0; i < operatorCount; i++) {
+                    Node childNode = forward ? currentNode.createChild(i) : currentNode.createPredecessor(i);
+                    if (childNode == null) {
+                        continue;
+                    }
+                    fireNodeGenerated(childNode);
+                    if (reached.putIfAbsent(childNode, childNode) != null) {
+                        fireDuplicateRejected(childNode);
+                        continue;
+                    }
+                    nextFrontier.add(childNode);
+                    Node otherNode = otherReached.get(childNode);
+                    if (otherNode != null && (bestForward == null
+                            || childNode.getDepth() + otherNode.getDepth() < bestForward.getDepth() + bestBackward.getDepth())) {
+                        bestForward = forward ? childNode : otherNode;
+                        bestBackward = forward ? otherNode : childNode;
+                    }
+                }
+            }
+            fireFrontierSizeChanged(forward
+                    ? nextFrontier.size() + backwardFrontier.size() : forwardFrontier.size() + nextFrontier.size());
+            if (bestForward != null) {
+                return join(bestForward, bestBackward);
+            }
+            if (forward) {
+                forwardFrontier = nextFrontier;
+            } else {
+                backwardFrontier = nextFrontier;
+            }
+        }
+        return null;
+    }
+
+    // Appends the states of the backward path to the forward path, so the result leads from the start node to the goal.
+    private Node join(Node forwardNode, Node backwardNode) {
+        Node currentNode = forwardNode;
+        for (Node node = backwardNode.getParent(); node != null; node = node.getParent()) {
+            currentNode = new Node(currentNode, node.getState());
+        }
+        return currentNode;
+    }
+}
@@ -0,0 +1,56 @@
+package com.csaba79coder.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A class implementing breadth-first graph search.
+ * Open nodes are stored in a FIFO queue, so the nodes are expanded in the order of their depth,
+ * and the first terminal node found is a shortest solution.
+ * Every generated node is kept in a visited set, so each state is generated at most once.
+ */
+public class BreadthFirstSearch extends GraphSearch {
+    private final Supplier<VisitedSet> visitedSetFactory;
+    private final List<Node> newNodes = new ArrayList<>(); // Reused buffer for the children of the expanded node.
+
+    public BreadthFirstSearch(Node startNode, Supplier<VisitedSet> visitedSetFactory) {
+        super(startNode);
+        this.visitedSetFactory = visitedSetFactory;
+    }
+
+    public BreadthFirstSearch(Node startNode) {
+        this(startNode, HashVisitedSet::new);
+    }
+
+    @Override
+    public Node search() {
+        if (getStartNode().isTerminalNode()) {
+            return getStartNode();
+        }
+        NodeQueue open = new NodeQueue(); // Set of open nodes.
+        VisitedSet visited = visitedSetFactory.get(); // Set of open and closed nodes.
+        open.offer(getStartNode());
+        visited.add(getStartNode());
+        while (!open.isEmpty()) {
+            // This is the node with the minimum depth.
+            Node currentNode = open.poll();
+            currentNode.expand(newNodes);
+            fireNodeExpanded(currentNode);
+            for (Node childNode : newNodes) {
+                fireNodeGenerated(childNode);
+                // The children are one level deeper than every open node, so the first terminal node is a shortest solution.
+                if (childNode.isTerminalNode()) {
+                    return childNode;
+                }
+                if (visited.add(childNode)) {
+                    open.offer(childNode);
+                } else {
+                    fireDuplicateRejected(childNode);
+                }
+            }
+            fireFrontierSizeChanged(open.size());
+        }
+        return null;
+    }
+}
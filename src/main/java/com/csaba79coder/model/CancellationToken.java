@@ -0,0 +1,19 @@
+package com.csaba79coder.model;
+
+/**
+ * Lets another thread stop a running search (see GraphSearch.search(SearchBudget, CancellationToken)).
+ * The search checks the token at every expansion, and returns its best partial result after cancel is called.
+ * A token can be shared by several searches, e.g., to cancel a whole batch.
+ */
+public final class CancellationToken {
+    private volatile boolean cancelled;
+
+    // Asks the searches using this token to stop. It cannot be undone.
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,63 @@
+package com.csaba79coder.model;
+
+import java.util.function.LongConsumer;
+
+/**
+ * A visited set storing the canonical representatives of the states (see Canonicalizer).
+ * A node is in the set if a node of a symmetric state was added, so a search skips the states symmetric to explored ones.
+ * It decorates another visited set, which stores the nodes of the representatives.
+ * The nodes of the search keep their real states, so the solution is still a path of real moves.
+ * The canonicalizer is either given, or taken from the states (see AbstractState.getCanonicalizer).
+ * E.g., new BreadthFirstSearch(startNode, () -> new CanonicalVisitedSet(new HashVisitedSet())).
+ */
+public class CanonicalVisitedSet implements VisitedSet {
+    private final VisitedSet visitedSet;
+    private final Canonicalizer canonicalizer; // null: the canonicalizer of the states is used.
+
+    public CanonicalVisitedSet(VisitedSet visitedSet) {
+        this(visitedSet, null);
+    }
+
+    public CanonicalVisitedSet(VisitedSet visitedSet, Canonicalizer canonicalizer) {
+        this.visitedSet = visitedSet;
+        this.canonicalizer = canonicalizer;
+    }
+
+    // Returns a node of the representative, or the node itself if its state is the representative.
+    private Node canonical(Node node) {
+        AbstractState state = node.getState();
+        AbstractState representative = (canonicalizer != null ? canonicalizer : state.getCanonicalizer()).canonicalize(state);
+        return representative == state ? node : new Node(representative);
+    }
+
+    @Override
+    public boolean add(Node node) {
+        return visitedSet.add(canonical(node));
+    }
+
+    @Override
+    public boolean contains(Node node) {
+        return visitedSet.contains(canonical(node));
+    }
+
+    @Override
+    public boolean remove(Node node) {
+        return visitedSet.remove(canonical(node));
+    }
+
+    @Override
+    public int size() {
+        return visitedSet.size();
+    }
+
+    @Override
+    public void clear() {
+        visitedSet.clear();
+    }
+
+    // The codes of the representatives.
+    @Override
+    public void forEachCode(LongConsumer action) {
+        visitedSet.forEachCode(action);
+    }
+}
@@ -0,0 +1,20 @@
+package com.csaba79coder.model;
+
+/**
+ * Maps a state to the canonical representative of its symmetry class.
+ * A symmetry of a problem maps states to states, so that the operators, the start state and the goal states are preserved:
+ * e.g., transposing the board of the Hungry Knight (see HungryKnightState.TRANSPOSE).
+ * Then a state and its images have the same distance from the start and from the goal,
+ * so a search only needs to explore one of them (see CanonicalVisitedSet).
+ * Symmetries that swap the start and the goal (e.g., swapping the banks of the river in the Monks and Cannibals problem)
+ * are not such symmetries.
+ */
+@FunctionalInterface
+public interface Canonicalizer {
+    // Every state is its own representative.
+    Canonicalizer IDENTITY = state -> state;
+
+    // Returns the representative of the class of the state. Symmetric states must have the same representative.
+    // The state must not be changed. It may be returned, if it is the representative.
+    AbstractState canonicalize(AbstractState state);
+}
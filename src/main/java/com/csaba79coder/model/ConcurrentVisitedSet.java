@@ -0,0 +1,55 @@
+package com.csaba79coder.model;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+/**
+ * A thread-safe visited set for parallel searches, backed by a ConcurrentHashMap.
+ * Lookups do not lock at all, and an insert only locks a single bin of the table (or uses a CAS on an empty bin),
+ * so threads adding different states rarely wait for each other.
+ * Add is atomic: if several threads add equal nodes, exactly one of them gets true.
+ */
+public class ConcurrentVisitedSet implements VisitedSet {
+    private final Set<Node> nodes;
+
+    public ConcurrentVisitedSet() {
+        nodes = ConcurrentHashMap.newKeySet();
+    }
+
+    public ConcurrentVisitedSet(int expectedSize) {
+        nodes = ConcurrentHashMap.newKeySet(expectedSize);
+    }
+
+    @Override
+    public boolean add(Node node) {
+        return nodes.add(node);
+    }
+
+    @Override
+    public boolean contains(Node node) {
+        return nodes.contains(node);
+    }
+
+    @Override
+    public boolean remove(Node node) {
+        return nodes.remove(node);
+    }
+
+    @Override
+    public int size() {
+        return nodes.size();
+    }
+
+    @Override
+    public void clear() {
+        nodes.clear();
+    }
+
+    @Override
+    public void forEachCode(LongConsumer action) {
+        for (Node node : nodes) {
+            action.accept(node.getState().encode());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.csaba79coder.model;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * A visited set that stores one bit per state, indexed by the dense index of the state (see AbstractState.toIndex).
+ * Adding and checking a node is a single array access, there is no hashing and no object per node,
+ * and the whole state space costs getStateSpaceSize() / 8 bytes.
+ * It can only be used with state classes that support dense indexing.
+ * The bitset is allocated for the state space of the first node added, unless the size is given.
+ */
+public class DenseVisitedSet implements VisitedSet {
+    private long[] bits;
+    private int size;
+    private AbstractState template; // A state of the problem, used to turn the indexes into codes.
+
+    public DenseVisitedSet() {
+    }
+
+    public DenseVisitedSet(int stateSpaceSize) {
+        bits = new long[(stateSpaceSize + 63) >>> 6];
+    }
+
+    @Override
+    public boolean add(Node node) {
+        int index = node.getState().toIndex();
+        if (bits == null) {
+            bits = new long[(node.getState().getStateSpaceSize() + 63) >>> 6];
+        }
+        if (template == null) {
+            template = (AbstractState) node.getState().clone();
+        }
+        long mask = 1L << index;
+        if ((bits[index >>> 6] & mask) != 0) {
+            return false;
+        }
+        bits[index >>> 6] |= mask;
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean contains(Node node) {
+        int index = node.getState().toIndex();
+        return bits != null && (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    @Override
+    public boolean remove(Node node) {
+        if (!contains(node)) {
+            return false;
+        }
+        int index = node.getState().toIndex();
+        bits[index >>> 6] &= ~(1L << index);
+        size--;
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEachCode(LongConsumer action) {
+        if (size == 0) {
+            return;
+        }
+        for (int k = 0; k < bits.length; k++) {
+            for (long word = bits[k]; word != 0; word &= word - 1) {
+                template.fromIndex((k << 6) + Long.numberOfTrailingZeros(word));
+                action.accept(template.encode());
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (bits != null) {
+            Arrays.fill(bits, 0);
+        }
+        size = 0;
+    }
+}
@@ -1,13 +1,23 @@
 package com.csaba79coder.model;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Stack;
+import java.util.function.Supplier;
 
 /**
  * A class implementing depth-first graph search.
  * This implementation assumes that the start node is not a terminal node.
  * Open nodes are stored in a stack.
+ * Duplicate detection uses VisitedSet instances, by default hash-based ones, so it costs O(1) per child.
+ * A long search can be checkpointed: the open nodes, the closed states and the counters are written
+ * to a snapshot file (see enableCheckpoints and writeSnapshot), and resume rebuilds the search from the file,
+ * so it continues where it stopped. Snapshots need states that support encoding (see AbstractState.encode).
+ * With a MoveOrdering (see setMoveOrdering), the children are pushed in reverse order, so the most promising is expanded first.
  */
 
 public class DepthFirstSearch extends GraphSearch {
@@ -15,30 +25,123 @@ public class DepthFirstSearch extends GraphSearch {
     // This way, the node with the maximum depth is always at the top of the stack.
     // There's no need to search for the node with the maximum depth to expand.
     private final Stack<Node> open; // Set of open nodes.
-    private final List<Node> closed; // Set of closed nodes.
+    // Searching the stack is a linear scan, so the open nodes are also indexed in a visited set.
+    private final VisitedSet openIndex; // Membership index of the open nodes.
+    private final VisitedSet closed; // Set of closed nodes.
     private final boolean cycleDetection; // If false, it can fall into an infinite loop.
+    private final List<Node> newNodes = new ArrayList<>(); // Reused buffer for the children of the expanded node.
+    private MoveOrdering moveOrdering; // Null: the children are pushed in index order.
+    private int[] order = new int[0]; // Reused buffer for the operator order of the expanded node.
+    private long expandedNodes; // The number of expanded nodes, over every run of the search.
+    private Path checkpointFile; // Null if no checkpoints are written.
+    private long checkpointInterval; // The number of expansions between two checkpoints.
+    private long nextCheckpoint;
+    private Thread checkpointWriter; // Writes the last snapshot in the background.
+    private volatile IOException checkpointFailure;
+    // While checkpoints are enabled, the codes of the closed states in the order they were closed,
+    // so a checkpoint does not have to walk the closed set. Snapshots share it, so it is only appended to.
+    private long[] closedLog;
+    private int closedLogSize;
 
-    public DepthFirstSearch(Node startNode, boolean cycleDetection) {
+    // The visited set factory is used to create both the open index and the set of closed nodes.
+    public DepthFirstSearch(Node startNode, boolean cycleDetection, Supplier<VisitedSet> visitedSetFactory) {
         super(startNode);
         open = new Stack<>();
         open.push(startNode); // Initially, only the start node is open.
-        closed = new ArrayList<>(); // Initially, the set of closed nodes is empty.
+        openIndex = visitedSetFactory.get();
+        openIndex.add(startNode);
+        closed = visitedSetFactory.get(); // Initially, the set of closed nodes is empty.
         this.cycleDetection = cycleDetection;
     }
 
+    public DepthFirstSearch(Node startNode, boolean cycleDetection) {
+        this(startNode, cycleDetection, HashVisitedSet::new);
+    }
+
     // Default value for cycle detection is true.
     public DepthFirstSearch(Node startNode) {
         this(startNode, true);
     }
 
+    // Rebuilds a search from a snapshot written by writeSnapshot or by a checkpoint.
+    // The start node must hold the same start state as the search that wrote the snapshot.
+    // The closed states are restored into a new visited set of the factory;
+    // an EncodedVisitedSet keeps them as codes, without a node and a state object each.
+    public static DepthFirstSearch resume(Path snapshotFile, Node startNode, Supplier<VisitedSet> visitedSetFactory)
+            throws IOException {
+        DepthFirstSearchSnapshot snapshot = DepthFirstSearchSnapshot.read(snapshotFile);
+        DepthFirstSearch search = new DepthFirstSearch(startNode, snapshot.cycleDetection, visitedSetFactory);
+        search.restore(snapshot);
+        return search;
+    }
+
+    public static DepthFirstSearch resume(Path snapshotFile, Node startNode) throws IOException {
+        return resume(snapshotFile, startNode, HashVisitedSet::new);
+    }
+
+    // Writes a snapshot every interval expansions while the search runs. The previous snapshot is replaced.
+    // Taking a snapshot copies the path to the deepest open node and the open nodes into a table,
+    // the closed codes are kept in a log as the nodes are closed (8 bytes per closed state), so it does not
+    // depend on the number of closed states. The file is written by a background thread.
+    // If that thread is still writing the previous snapshot, the checkpoint is skipped.
+    public void enableCheckpoints(Path snapshotFile, long interval) {
+        AbstractState startState = getStartNode().getState();
+        if (!startState.isEncodable()) {
+            throw new IllegalArgumentException(startState.getClass().getSimpleName() + " does not support encoding.");
+        }
+        if (startState.getOperatorCount() > NodeArena.MAX_OPERATOR_COUNT) {
+            throw new IllegalArgumentException(startState.getClass().getSimpleName() + " has too many operators "
+                    + "for a snapshot: " + startState.getOperatorCount());
+        }
+        if (interval < 1) {
+            throw new IllegalArgumentException("The checkpoint interval must be positive.");
+        }
+        checkpointFile = snapshotFile;
+        checkpointInterval = interval;
+        nextCheckpoint = expandedNodes + interval;
+        if (closedLog == null) {
+            closedLog = new long[Math.max(closed.size(), 16)];
+            closedLogSize = 0;
+            closed.forEachCode(code -> closedLog[closedLogSize++] = code);
+        }
+    }
+
+    // Writes a snapshot of the search right now. Call it when the search is not running,
+    // e.g., after it was stopped by a SearchBudget.
+    public void writeSnapshot(Path snapshotFile) throws IOException {
+        capture().write(snapshotFile);
+    }
+
+    public long getExpandedNodeCount() {
+        return expandedNodes;
+    }
+
+    // Sets the order in which the children of a node are expanded. Null means the default order:
+    // the children are pushed in index order, so the last operator is expanded first.
+    public void setMoveOrdering(MoveOrdering moveOrdering) {
+        this.moveOrdering = moveOrdering;
+    }
+
     // The search for a solution begins here.
+    // If the search is stopped (e.g., by a SearchBudget), calling it again continues where it stopped.
+    // The last checkpoint is always complete when it returns. If the search fails, a failed checkpoint
+    // is added to its exception as a suppressed one.
     @Override
     public Node search() {
-        // If cycle detection is not required, the algorithm is much faster.
-        if (cycleDetection) {
-            return searchWithCycleDetection();
+        Throwable failure = null;
+        try {
+            // If cycle detection is not required, the algorithm is much faster.
+            Node terminalNode = cycleDetection ? searchWithCycleDetection() : searchQuickly();
+            if (terminalNode != null && moveOrdering != null) {
+                moveOrdering.solutionFound(terminalNode);
+            }
+            return terminalNode;
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            awaitCheckpoint(failure);
         }
-        return searchQuickly();
     }
 
     private Node searchWithCycleDetection() {
@@ -46,21 +149,33 @@ public class DepthFirstSearch extends GraphSearch {
         while (!open.isEmpty()) {
             // This is the node with the maximum depth.
             Node currentNode = open.pop();
+            openIndex.remove(currentNode);
             // Expand this node.
-            List<Node> newNodes = currentNode.expand();
+            expand(currentNode);
+            expandedNodes++;
             for (Node childNode : newNodes) {
+                fireNodeGenerated(childNode);
                 // If I found the terminal node, I'm done.
                 if (childNode.isTerminalNode()) {
                     return childNode;
                 }
                 // Only add new nodes to the open set that have not been in the closed or open sets.
-                // The Contains method calls the Equals method in the Node class.
-                if (!closed.contains(childNode) && !open.contains(childNode)) {
+                // The visited sets call the equals and hashCode methods in the Node class.
+                if (!closed.contains(childNode) && openIndex.add(childNode)) {
                     open.push(childNode);
+                } else {
+                    fireDuplicateRejected(childNode);
                 }
             }
             // Reclassify the expanded node as closed.
-            closed.add(currentNode);
+            if (closed.add(currentNode) && closedLog != null) {
+                logClosed(currentNode.getState().encode());
+            }
+            // A SearchBudget may stop the search in these notifications, so they come after the step is complete,
+            // and the search can be continued or snapshotted.
+            fireNodeExpanded(currentNode);
+            fireFrontierSizeChanged(open.size());
+            checkpoint();
         }
         return null;
     }
@@ -70,8 +185,10 @@ public class DepthFirstSearch extends GraphSearch {
     private Node searchQuickly() {
         while (!open.isEmpty()) {
             Node currentNode = open.pop();
-            List<Node> newNodes = currentNode.expand();
+            expand(currentNode);
+            expandedNodes++;
             for (Node childNode : newNodes) {
+                fireNodeGenerated(childNode);
                 if (childNode.isTerminalNode()) {
                     return childNode;
                 }
@@ -79,8 +196,125 @@ public class DepthFirstSearch extends GraphSearch {
                 open.push(childNode);
             }
             // If there are no cycles, there's no need to reclassify C as closed.
+            fireNodeExpanded(currentNode);
+            fireFrontierSizeChanged(open.size());
+            checkpoint();
         }
         return null;
     }
+
+    // Puts the children of the node into newNodes, in the order they are pushed.
+    private void expand(Node currentNode) {
+        if (moveOrdering == null) {
+            currentNode.expand(newNodes);
+            return;
+        }
+        if (order.length < currentNode.getOperatorCount()) {
+            order = new int[currentNode.getOperatorCount()];
+        }
+        newNodes.clear();
+        // The stack reverses the order, so the most promising child is pushed last.
+        for (int k = moveOrdering.order(currentNode.getState(), order) - 1; k >= 0; k--) {
+            Node childNode = currentNode.createChild(order[k]);
+            if (childNode != null) {
+                newNodes.add(childNode);
+            }
+        }
+    }
+
+    // Starts writing a snapshot in the background, if a checkpoint is due.
+    private void checkpoint() {
+        if (checkpointFile == null || expandedNodes < nextCheckpoint) {
+            return;
+        }
+        nextCheckpoint = expandedNodes + checkpointInterval;
+        if (checkpointFailure != null) {
+            throw new UncheckedIOException("Writing a checkpoint failed.", checkpointFailure);
+        }
+        if (checkpointWriter != null && checkpointWriter.isAlive()) {
+            return;
+        }
+        DepthFirstSearchSnapshot snapshot = capture();
+        Path file = checkpointFile;
+        checkpointWriter = Thread.ofVirtual().name("dfs-checkpoint").start(() -> {
+            try {
+                snapshot.write(file);
+            } catch (IOException e) {
+                checkpointFailure = e;
+            }
+        });
+    }
+
+    // Waits until the snapshot being written is complete. If it failed, the failure is thrown,
+    // or added to the exception the search failed with. A Stop is not a failure, the checkpoint failure replaces it.
+    private void awaitCheckpoint(Throwable searchFailure) {
+        if (checkpointWriter == null) {
+            return;
+        }
+        try {
+            checkpointWriter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (checkpointFailure == null) {
+            return;
+        }
+        UncheckedIOException failure = new UncheckedIOException("Writing a checkpoint failed.", checkpointFailure);
+        if (searchFailure == null || searchFailure instanceof SearchMonitor.Stop) {
+            throw failure;
+        }
+        searchFailure.addSuppressed(failure);
+    }
+
+    private void logClosed(long code) {
+        if (closedLogSize == closedLog.length) {
+            // A snapshot may still be reading the old array, so it is copied, not changed.
+            closedLog = Arrays.copyOf(closedLog, closedLogSize * 2);
+        }
+        closedLog[closedLogSize++] = code;
+    }
+
+    private DepthFirstSearchSnapshot capture() {
+        if (closedLog != null) {
+            return DepthFirstSearchSnapshot.capture(open, closedLog, closedLogSize, cycleDetection, expandedNodes);
+        }
+        return DepthFirstSearchSnapshot.capture(open, closed, cycleDetection, expandedNodes);
+    }
+
+    // Replaces the open and closed nodes and the counters with the ones of the snapshot.
+    private void restore(DepthFirstSearchSnapshot snapshot) {
+        NodeArena table = snapshot.nodes;
+        AbstractState startState = getStartNode().getState();
+        if (table.size() > 0 && table.getState(0) != startState.encode()) {
+            throw new IllegalArgumentException("The snapshot belongs to another start state than " + startState);
+        }
+        Node[] nodes = new Node[table.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            if (i == 0) {
+                nodes[i] = getStartNode();
+                continue;
+            }
+            AbstractState state = (AbstractState) startState.clone();
+            state.decode(table.getState(i));
+            nodes[i] = new Node(nodes[table.getParent(i)], state, table.getOperator(i));
+        }
+        open.clear();
+        openIndex.clear();
+        for (int handle : snapshot.open) {
+            open.push(nodes[handle]);
+            openIndex.add(nodes[handle]);
+        }
+        closed.clear();
+        for (int i = 0; i < snapshot.closedCount; i++) {
+            AbstractState state = (AbstractState) startState.clone();
+            state.decode(snapshot.closed[i]);
+            closed.add(new Node(state));
+        }
+        if (closedLog != null) {
+            closedLog = Arrays.copyOf(snapshot.closed, Math.max(snapshot.closedCount, 16));
+            closedLogSize = snapshot.closedCount;
+        }
+        expandedNodes = snapshot.expandedNodes;
+    }
 }
 
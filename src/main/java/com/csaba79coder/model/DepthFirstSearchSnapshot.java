@@ -0,0 +1,255 @@
+package com.csaba79coder.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A snapshot of a DepthFirstSearch: its open nodes, the codes of its closed states and its counters.
+ * The open nodes are stored in a node table (a NodeArena), together with their ancestors, so the paths can be rebuilt.
+ * Every node of the table is the code of its state (see AbstractState.encode), the handle of its parent
+ * (its position in the table, -1 for the start node) and the operator that created it.
+ * Parents always come before their children.
+ * The snapshot is taken in memory first (capture), so it can be written to the file by another thread
+ * while the search goes on. The closed states are not copied if the search keeps an append-only log of their codes:
+ * the snapshot holds the log array and its current length, and the search only appends beyond that length,
+ * or grows into a new array. So a capture costs O(depth + open nodes), not O(closed states).
+ * File format (big-endian): magic, version, flags (bit 0: cycle detection), number of expanded nodes,
+ * number of nodes in the table, number of open nodes, number of closed states;
+ * then the table (code, parent handle, operator: 14 bytes per node), the handles of the open nodes
+ * from the bottom of the stack to its top, and the codes of the closed states.
+ */
+final class DepthFirstSearchSnapshot {
+    private static final int MAGIC = 0x44465353; // "DFSS"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 3 * Integer.BYTES + Long.BYTES + 2 * Integer.BYTES + Long.BYTES;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    final boolean cycleDetection;
+    final long expandedNodes;
+    final NodeArena nodes; // The node table.
+    final int[] open;
+    final long[] closed; // Only the first closedCount codes belong to the snapshot.
+    final int closedCount;
+
+    private DepthFirstSearchSnapshot(boolean cycleDetection, long expandedNodes, NodeArena nodes, int[] open,
+                                     long[] closed, int closedCount) {
+        this.cycleDetection = cycleDetection;
+        this.expandedNodes = expandedNodes;
+        this.nodes = nodes;
+        this.open = open;
+        this.closed = closed;
+        this.closedCount = closedCount;
+    }
+
+    // Copies the state of the search. The open nodes are given from the bottom of the stack to its top.
+    // The codes of the closed states are copied from the set.
+    static DepthFirstSearchSnapshot capture(List<Node> openNodes, VisitedSet closedNodes, boolean cycleDetection,
+                                            long expandedNodes) {
+        long[] closed = new long[closedNodes.size()];
+        int[] count = new int[1];
+        closedNodes.forEachCode(code -> closed[count[0]++] = code);
+        return capture(openNodes, closed, count[0], cycleDetection, expandedNodes);
+    }
+
+    // The closed states are the first closedCount codes of the log. The log is not copied,
+    // so the caller must not change these codes while the snapshot is in use.
+    static DepthFirstSearchSnapshot capture(List<Node> openNodes, long[] closedLog, int closedCount,
+                                            boolean cycleDetection, long expandedNodes) {
+        NodeArena nodes = captureAlongPath(openNodes);
+        int[] open;
+        if (nodes != null) {
+            // The open nodes follow the path in the table.
+            open = new int[openNodes.size()];
+            for (int i = 0; i < open.length; i++) {
+                open[i] = nodes.size() - open.length + i;
+            }
+        } else {
+            nodes = new NodeArena();
+            open = captureWithHandles(openNodes, nodes);
+        }
+        return new DepthFirstSearchSnapshot(cycleDetection, expandedNodes, nodes, open, closedLog, closedCount);
+    }
+
+    // In a depth-first search, the parent of every open node is on the path from the start node
+    // to the deepest parent, so the handle of a parent is simply its depth, and no lookup table is needed.
+    // Returns null if the open nodes do not have this shape.
+    private static NodeArena captureAlongPath(List<Node> openNodes) {
+        Node deepestParent = null;
+        for (Node node : openNodes) {
+            Node parent = node.getParent();
+            if (parent == null) {
+                return null;
+            }
+            if (deepestParent == null || parent.getDepth() > deepestParent.getDepth()) {
+                deepestParent = parent;
+            }
+        }
+        if (deepestParent == null) {
+            return new NodeArena();
+        }
+        Node[] path = new Node[deepestParent.getDepth() + 1];
+        for (Node node = deepestParent; node != null; node = node.getParent()) {
+            path[node.getDepth()] = node;
+        }
+        for (Node node : openNodes) {
+            if (path[node.getParent().getDepth()] != node.getParent()) {
+                return null;
+            }
+        }
+        NodeArena nodes = new NodeArena(path.length + openNodes.size());
+        nodes.addRoot(path[0].getState().encode());
+        for (int depth = 1; depth < path.length; depth++) {
+            nodes.add(depth - 1, path[depth].getOperator(), path[depth].getState().encode());
+        }
+        for (Node node : openNodes) {
+            nodes.add(node.getParent().getDepth(), node.getOperator(), node.getState().encode());
+        }
+        return nodes;
+    }
+
+    // The general case: every node gets a handle when it is first reached from an open node.
+    private static int[] captureWithHandles(List<Node> openNodes, NodeArena nodes) {
+        Map<Node, Integer> handles = new IdentityHashMap<>();
+        int[] open = new int[openNodes.size()];
+        Node[] chain = new Node[16];
+        for (int i = 0; i < open.length; i++) {
+            // The ancestors without a handle are collected first, so they can be added from the top down.
+            int length = 0;
+            for (Node node = openNodes.get(i); node != null && !handles.containsKey(node); node = node.getParent()) {
+                if (length == chain.length) {
+                    chain = Arrays.copyOf(chain, length * 2);
+                }
+                chain[length++] = node;
+            }
+            while (length > 0) {
+                Node node = chain[--length];
+                chain[length] = null;
+                long code = node.getState().encode();
+                handles.put(node, node.getParent() == null ? nodes.addRoot(code)
+                        : nodes.add(handles.get(node.getParent()), node.getOperator(), code));
+            }
+            open[i] = handles.get(openNodes.get(i));
+        }
+        return open;
+    }
+
+    // Writes the snapshot into a temporary file next to the target, and then moves it in place,
+    // so the file always holds a complete snapshot, even if the process dies while writing.
+    void write(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Path temporary = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(cycleDetection ? 1 : 0).putLong(expandedNodes)
+                    .putInt(nodes.size()).putInt(open.length).putLong(closedCount);
+            for (int i = 0; i < nodes.size(); i++) {
+                ensureRemaining(channel, buffer, Long.BYTES + Integer.BYTES + Short.BYTES);
+                buffer.putLong(nodes.getState(i)).putInt(nodes.getParent(i)).putShort((short) nodes.getOperator(i));
+            }
+            for (int handle : open) {
+                ensureRemaining(channel, buffer, Integer.BYTES);
+                buffer.putInt(handle);
+            }
+            for (int i = 0; i < closedCount; i++) {
+                ensureRemaining(channel, buffer, Long.BYTES);
+                buffer.putLong(closed[i]);
+            }
+            flush(channel, buffer);
+            channel.force(false);
+        }
+        Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static DepthFirstSearchSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.limit(0);
+            fill(channel, buffer, HEADER_SIZE);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException(file + " is not a depth-first search snapshot.");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + " in " + file);
+            }
+            boolean cycleDetection = (buffer.getInt() & 1) != 0;
+            long expandedNodes = buffer.getLong();
+            int nodeCount = buffer.getInt();
+            int openCount = buffer.getInt();
+            long closedCount = buffer.getLong();
+            if (nodeCount < 0 || openCount < 0 || closedCount < 0 || closedCount > Integer.MAX_VALUE - 8) {
+                throw new IOException(file + " is corrupt.");
+            }
+            NodeArena nodes = new NodeArena(nodeCount);
+            for (int i = 0; i < nodeCount; i++) {
+                fill(channel, buffer, Long.BYTES + Integer.BYTES + Short.BYTES);
+                long code = buffer.getLong();
+                int parent = buffer.getInt();
+                int operator = buffer.getShort();
+                if (parent >= i || (parent == NodeArena.NO_PARENT) != (i == 0)) {
+                    throw new IOException(file + " is corrupt: bad parent handle at node " + i);
+                }
+                if (i > 0 && operator < 0) {
+                    throw new IOException(file + " is corrupt: bad operator at node " + i);
+                }
+                if (i == 0) {
+                    nodes.addRoot(code);
+                } else {
+                    nodes.add(parent, operator, code);
+                }
+            }
+            int[] open = new int[openCount];
+            for (int i = 0; i < openCount; i++) {
+                fill(channel, buffer, Integer.BYTES);
+                open[i] = buffer.getInt();
+                if (open[i] < 0 || open[i] >= nodeCount) {
+                    throw new IOException(file + " is corrupt: bad open handle " + open[i]);
+                }
+            }
+            long[] closed = new long[(int) closedCount];
+            for (int i = 0; i < closed.length; i++) {
+                fill(channel, buffer, Long.BYTES);
+                closed[i] = buffer.getLong();
+            }
+            return new DepthFirstSearchSnapshot(cycleDetection, expandedNodes, nodes, open, closed, closed.length);
+        }
+    }
+
+    private static void ensureRemaining(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // Makes sure that the buffer holds at least the given number of unread bytes.
+    private static void fill(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Unexpected end of the snapshot file.");
+            }
+        }
+        buffer.flip();
+    }
+}
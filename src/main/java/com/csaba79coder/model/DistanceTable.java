@@ -0,0 +1,176 @@
+package com.csaba79coder.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A table of the distances to the goal for every state of a problem.
+ * It is built once by a retrograde breadth-first search: the search starts from the goal state
+ * (see AbstractState.getGoalState) and applies the predecessor operators, so every state is reached
+ * at its distance from the goal. The states have to support dense indexing (see AbstractState.toIndex).
+ * The distances are stored in one byte per state if the largest one fits, otherwise in two bytes.
+ * The table can be saved to a file and loaded again by memory-mapping it,
+ * so a large table is not read into the heap and is shared by the processes using it.
+ * Every query is then answered by DistanceTableSearch in time proportional to the length of the path.
+ * A table only answers queries of the problem instance it was built for: the instance key of the problem
+ * (see AbstractState.getInstanceKey) is stored with it, and checked at every query.
+ * File format (big-endian): magic, version, width of an entry in bytes, number of entries, largest distance,
+ * index of the goal state, instance key, length and UTF-8 bytes of the state class name, then the entries.
+ */
+public class DistanceTable {
+    private static final int MAGIC = 0x4454424C; // "DTBL"
+    private static final int VERSION = 2;
+    private static final int MAX_BYTE_DISTANCE = 0xFE;
+    private static final int MAX_SHORT_DISTANCE = 0xFFFE;
+
+    private final String stateClassName;
+    private final int size; // The number of entries, see AbstractState.getStateSpaceSize.
+    private final int width; // The width of an entry in bytes, 1 or 2.
+    private final int maxDistance;
+    private final int goalIndex;
+    private final long instanceKey; // See AbstractState.getInstanceKey.
+    private final ByteBuffer entries; // The unreachable states have all bits of their entry set.
+
+    private DistanceTable(String stateClassName, int size, int width, int maxDistance, int goalIndex, long instanceKey,
+                          ByteBuffer entries) {
+        this.stateClassName = stateClassName;
+        this.size = size;
+        this.width = width;
+        this.maxDistance = maxDistance;
+        this.goalIndex = goalIndex;
+        this.instanceKey = instanceKey;
+        this.entries = entries;
+    }
+
+    // Builds the table of the problem of the given state.
+    public static DistanceTable build(AbstractState problem) {
+        AbstractState goal = problem.getGoalState();
+        if (goal == null) {
+            throw new IllegalArgumentException(problem.getClass().getSimpleName() + " does not have a single goal state.");
+        }
+        int size = goal.getStateSpaceSize();
+        if (size == 0) {
+            throw new IllegalArgumentException(problem.getClass().getSimpleName() + " does not support indexing.");
+        }
+        short[] distances = new short[size];
+        Arrays.fill(distances, (short) -1);
+        // The queue holds every state at most once, so it never wraps around.
+        int[] queue = new int[size];
+        int head = 0;
+        int tail = 0;
+        int goalIndex = goal.toIndex();
+        distances[goalIndex] = 0;
+        queue[tail++] = goalIndex;
+        int maxDistance = 0;
+        AbstractState state = (AbstractState) goal.clone();
+        while (head < tail) {
+            int index = queue[head++];
+            int distance = distances[index] & 0xFFFF;
+            if (distance == MAX_SHORT_DISTANCE) {
+                throw new IllegalStateException("The distances do not fit into two bytes.");
+            }
+            state.fromIndex(index);
+            for (int i = 0; i < state.getPredecessorOperatorCount(); i++) {
+                AbstractState predecessor = (AbstractState) state.clone();
+                if (!predecessor.isPredecessorOperator(i)) {
+                    continue;
+                }
+                int predecessorIndex = predecessor.toIndex();
+                if (distances[predecessorIndex] == -1) {
+                    distances[predecessorIndex] = (short) (distance + 1);
+                    maxDistance = distance + 1;
+                    queue[tail++] = predecessorIndex;
+                }
+            }
+        }
+        int width = maxDistance <= MAX_BYTE_DISTANCE ? 1 : 2;
+        ByteBuffer entries = ByteBuffer.allocate(Math.multiplyExact(size, width));
+        for (short distance : distances) {
+            if (width == 1) {
+                entries.put((byte) distance);
+            } else {
+                entries.putShort(distance);
+            }
+        }
+        entries.clear();
+        return new DistanceTable(problem.getClass().getName(), size, width, maxDistance, goalIndex, goal.getInstanceKey(),
+                entries);
+    }
+
+    // Writes the table to a file through a memory mapping. An existing file is overwritten.
+    public void save(Path file) throws IOException {
+        byte[] name = stateClassName.getBytes(StandardCharsets.UTF_8);
+        int headerSize = 7 * Integer.BYTES + Long.BYTES + name.length;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) headerSize + entries.capacity());
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(size).putInt(maxDistance).putInt(goalIndex);
+            buffer.putLong(instanceKey).putInt(name.length).put(name);
+            buffer.put(entries.duplicate().clear());
+            buffer.force();
+        }
+    }
+
+    // Loads a table saved by save. The entries are not copied, they are read through the memory mapping.
+    public static DistanceTable load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 7 * Integer.BYTES + Long.BYTES || buffer.getInt() != MAGIC) {
+                throw new IOException(file + " is not a distance table.");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported distance table version " + version + " in " + file);
+            }
+            int width = buffer.getInt();
+            int size = buffer.getInt();
+            int maxDistance = buffer.getInt();
+            int goalIndex = buffer.getInt();
+            long instanceKey = buffer.getLong();
+            int nameLength = buffer.getInt();
+            if (nameLength < 0 || nameLength > buffer.remaining()) {
+                throw new IOException(file + " is truncated or corrupt.");
+            }
+            byte[] name = new byte[nameLength];
+            buffer.get(name);
+            if ((width != 1 && width != 2) || buffer.remaining() != (long) size * width) {
+                throw new IOException(file + " is truncated or corrupt.");
+            }
+            ByteBuffer entries = buffer.slice();
+            return new DistanceTable(new String(name, StandardCharsets.UTF_8), size, width, maxDistance, goalIndex,
+                    instanceKey, entries);
+        }
+    }
+
+    // Returns the distance of the state from the goal, or -1 if the goal cannot be reached from it.
+    public int distance(AbstractState state) {
+        if (!state.getClass().getName().equals(stateClassName) || state.getStateSpaceSize() != size
+                || state.getInstanceKey() != instanceKey) {
+            throw new IllegalArgumentException("The state " + state + " does not belong to the problem of this table.");
+        }
+        return distance(state.toIndex());
+    }
+
+    int distance(int index) {
+        int distance = width == 1 ? entries.get(index) & 0xFF : entries.getShort(index * 2) & 0xFFFF;
+        return distance == (width == 1 ? 0xFF : 0xFFFF) ? -1 : distance;
+    }
+
+    public int getStateSpaceSize() {
+        return size;
+    }
+
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    int getGoalIndex() {
+        return goalIndex;
+    }
+}
@@ -0,0 +1,41 @@
+package com.csaba79coder.model;
+
+/**
+ * A class implementing a solver that answers a query from a precomputed DistanceTable.
+ * Starting from the start node, it always applies an operator leading to a state one step closer to the goal,
+ * so it finds an optimal solution without search, in time proportional to the length of the solution.
+ */
+public class DistanceTableSearch extends GraphSearch {
+    private final DistanceTable table;
+
+    public DistanceTableSearch(Node startNode, DistanceTable table) {
+        super(startNode);
+        this.table = table;
+    }
+
+    @Override
+    public Node search() {
+        Node currentNode = getStartNode();
+        int distance = table.distance(currentNode.getState());
+        if (distance < 0) {
+            return null;
+        }
+        while (distance > 0) {
+            fireNodeExpanded(currentNode);
+            Node nextNode = null;
+            for (int i = 0; i < currentNode.getOperatorCount() && nextNode == null; i++) {
+                Node newNode = currentNode.createChild(i);
+                if (newNode != null && table.distance(newNode.getState()) == distance - 1) {
+                    nextNode = newNode;
+                }
+            }
+            if (nextNode == null) {
+                throw new IllegalStateException("The distance table does not match the problem at " + currentNode);
+            }
+            fireNodeGenerated(nextNode);
+            currentNode = nextNode;
+            distance--;
+        }
+        return currentNode.isTerminalNode() ? currentNode : null;
+    }
+}
@@ -0,0 +1,51 @@
+package com.csaba79coder.model;
+
+import java.util.function.LongConsumer;
+
+/**
+ * A visited set that stores only the codes of the states (see AbstractState.encode) in a LongHashSet.
+ * It keeps no reference to the nodes, so the closed nodes can be garbage collected,
+ * and a visited state costs 8 to 16 bytes instead of a node and a state object.
+ * It can only be used with state classes that support encoding.
+ */
+public class EncodedVisitedSet implements VisitedSet {
+    private final LongHashSet codes;
+
+    public EncodedVisitedSet() {
+        codes = new LongHashSet();
+    }
+
+    public EncodedVisitedSet(int expectedSize) {
+        codes = new LongHashSet(expectedSize);
+    }
+
+    @Override
+    public boolean add(Node node) {
+        return codes.add(node.getState().encode());
+    }
+
+    @Override
+    public boolean contains(Node node) {
+        return codes.contains(node.getState().encode());
+    }
+
+    @Override
+    public boolean remove(Node node) {
+        return codes.remove(node.getState().encode());
+    }
+
+    @Override
+    public int size() {
+        return codes.size();
+    }
+
+    @Override
+    public void clear() {
+        codes.clear();
+    }
+
+    @Override
+    public void forEachCode(LongConsumer action) {
+        codes.forEach(action);
+    }
+}
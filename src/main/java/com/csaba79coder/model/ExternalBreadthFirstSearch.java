@@ -0,0 +1,426 @@
+package com.csaba79coder.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+/**
+ * A class implementing external-memory breadth-first search with delayed duplicate detection.
+ * It is meant for state spaces whose closed set does not fit into the heap.
+ * The states must support encoding (see AbstractState.encode).
+ * Every layer of the search is a file of fixed-width records (16 bytes: the code of a state and the code of its parent),
+ * sorted by the code of the state, and read through memory-mapped windows.
+ * The children of a layer are collected in a bounded buffer, which is sorted and written to a run file when it is full.
+ * The runs are then merged, and the states of the previous two layers are dropped during the merge.
+ * This is enough to remove every duplicate, because the operators of the problems are reversible
+ * (see AbstractState.isPredecessorOperator): a child of layer d can only be in layer d-1, d or d+1.
+ * The parent codes are kept in the layer files, so the solution is rebuilt as a chain of nodes at the end.
+ * The files are created in a temporary directory, which is deleted after the search.
+ */
+public class ExternalBreadthFirstSearch extends GraphSearch {
+    private static final int RECORD_SIZE = 16;
+    private static final int DEFAULT_RUN_SIZE = 1 << 20;
+
+    private final Path workDirectory;
+    private final int runSize; // The number of records buffered in memory before a sorted run is written.
+
+    public ExternalBreadthFirstSearch(Node startNode, Path workDirectory, int runSize) {
+        super(startNode);
+        if (!startNode.getState().isEncodable()) {
+            throw new IllegalArgumentException(startNode.getState().getClass().getSimpleName() + " does not support encoding.");
+        }
+        if (runSize < 1) {
+            throw new IllegalArgumentException("The run size must be positive.");
+        }
+        this.workDirectory = workDirectory;
+        this.runSize = runSize;
+    }
+
+    public ExternalBreadthFirstSearch(Node startNode, Path workDirectory) {
+        this(startNode, workDirectory, DEFAULT_RUN_SIZE);
+    }
+
+    @Override
+    public Node search() {
+        if (getStartNode().isTerminalNode()) {
+            return getStartNode();
+        }
+        Path directory = null;
+        try {
+            directory = Files.createTempDirectory(workDirectory, "external-bfs-");
+            return search(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("The external breadth-first search failed.", e);
+        } finally {
+            if (directory != null) {
+                deleteDirectory(directory);
+            }
+        }
+    }
+
+    private Node search(Path directory) throws IOException {
+        AbstractState startState = getStartNode().getState();
+        long startCode = startState.encode();
+        List<LayerFile> layers = new ArrayList<>();
+        Path firstLayer = directory.resolve("layer-0");
+        try (RecordWriter writer = new RecordWriter(firstLayer)) {
+            writer.write(startCode, startCode);
+        }
+        layers.add(new LayerFile(firstLayer));
+
+        RunBuffer buffer = new RunBuffer(runSize);
+        AbstractState state = (AbstractState) startState.clone();
+        for (int depth = 1; ; depth++) {
+            LayerFile layer = layers.get(depth - 1);
+            List<Path> runs = new ArrayList<>();
+            for (long index = 0; index < layer.count(); index++) {
+                long parentCode = layer.stateAt(index);
+                state.decode(parentCode);
+                fireNodeExpanded(null);
+                for (int i = 0; i < state.getOperatorCount(); i++) {
+                    if (state.hasApplicabilityCheck() && !state.isApplicable(i)) {
+                        continue;
+                    }
+                    AbstractState child = state.isUndoable() ? state : (AbstractState) state.clone();
+                    if (!child.isSuperOperator(i)) {
+                        continue;
+                    }
+                    long childCode = child.encode();
+                    boolean terminal = child.isGoalState();
+                    if (child == state) {
+                        state.undoSuperOperator(i);
+                    }
+                    fireNodeGenerated(null);
+                    if (terminal) {
+                        return buildSolution(layers, childCode, parentCode);
+                    }
+                    if (buffer.isFull()) {
+                        runs.add(writeRun(buffer, directory.resolve("run-" + depth + "-" + runs.size())));
+                    }
+                    buffer.add(childCode, parentCode);
+                }
+            }
+            if (!buffer.isEmpty()) {
+                runs.add(writeRun(buffer, directory.resolve("run-" + depth + "-" + runs.size())));
+            }
+            Path nextLayer = directory.resolve("layer-" + depth);
+            LayerFile previous = layers.get(depth - 1);
+            LayerFile beforePrevious = depth >= 2 ? layers.get(depth - 2) : null;
+            long count = merge(runs, previous, beforePrevious, nextLayer);
+            for (Path run : runs) {
+                Files.delete(run);
+            }
+            layers.add(new LayerFile(nextLayer));
+            fireFrontierSizeChanged((int) Math.min(Integer.MAX_VALUE, count));
+            if (count == 0) {
+                return null;
+            }
+        }
+    }
+
+    // The duplicates within a run are dropped when it is written, the others when the runs are merged.
+    private Path writeRun(RunBuffer buffer, Path file) throws IOException {
+        buffer.writeRun(file);
+        for (int i = 0; i < buffer.getDuplicateCount(); i++) {
+            fireDuplicateRejected(null);
+        }
+        return file;
+    }
+
+    // Merges the sorted runs into the next layer, dropping the duplicates and the states of the previous two layers.
+    // Returns the number of records in the new layer.
+    private long merge(List<Path> runs, LayerFile previous, LayerFile beforePrevious, Path nextLayer) throws IOException {
+        PriorityQueue<Cursor> queue = new PriorityQueue<>(Comparator.comparingLong(Cursor::state));
+        for (Path run : runs) {
+            Cursor cursor = new Cursor(new LayerFile(run));
+            if (cursor.hasRecord()) {
+                queue.add(cursor);
+            }
+        }
+        Cursor previousCursor = new Cursor(previous);
+        Cursor beforePreviousCursor = beforePrevious == null ? null : new Cursor(beforePrevious);
+        long count = 0;
+        boolean first = true;
+        long lastState = 0;
+        try (RecordWriter writer = new RecordWriter(nextLayer)) {
+            while (!queue.isEmpty()) {
+                Cursor cursor = queue.poll();
+                long state = cursor.state();
+                long parent = cursor.parent();
+                cursor.advance();
+                if (cursor.hasRecord()) {
+                    queue.add(cursor);
+                }
+                if (!first && state == lastState) {
+                    fireDuplicateRejected(null);
+                    continue;
+                }
+                first = false;
+                lastState = state;
+                if (previousCursor.skipTo(state) || (beforePreviousCursor != null && beforePreviousCursor.skipTo(state))) {
+                    fireDuplicateRejected(null);
+                    continue;
+                }
+                writer.write(state, parent);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Follows the parent codes back to the start state through the layer files, and builds the chain of nodes.
+    private Node buildSolution(List<LayerFile> layers, long terminalCode, long parentCode) {
+        List<Long> codes = new ArrayList<>();
+        codes.add(terminalCode);
+        long code = parentCode;
+        for (int depth = layers.size() - 1; depth > 0; depth--) {
+            codes.add(code);
+            LayerFile layer = layers.get(depth);
+            code = layer.parentAt(layer.find(code));
+        }
+        Node currentNode = getStartNode();
+        for (int i = codes.size() - 1; i >= 0; i--) {
+            AbstractState state = (AbstractState) getStartNode().getState().clone();
+            state.decode(codes.get(i));
+            currentNode = new Node(currentNode, state);
+        }
+        return currentNode;
+    }
+
+    private static void deleteDirectory(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            // The files are in a temporary directory, so a failed cleanup does not affect the result.
+        }
+    }
+
+    // The in-memory buffer of children. It is sorted by state code before it is written as a run.
+    private static class RunBuffer {
+        private final long[] states;
+        private final long[] parents;
+        private int size;
+        private int duplicates; // The number of duplicates dropped by the last writeRun.
+
+        RunBuffer(int capacity) {
+            states = new long[capacity];
+            parents = new long[capacity];
+        }
+
+        boolean isFull() {
+            return size == states.length;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void add(long state, long parent) {
+            states[size] = state;
+            parents[size] = parent;
+            size++;
+        }
+
+        // Sorts the buffer, writes it without duplicates, and empties it.
+        Path writeRun(Path file) throws IOException {
+            sort(0, size - 1);
+            duplicates = 0;
+            try (RecordWriter writer = new RecordWriter(file)) {
+                for (int i = 0; i < size; i++) {
+                    if (i == 0 || states[i] != states[i - 1]) {
+                        writer.write(states[i], parents[i]);
+                    } else {
+                        duplicates++;
+                    }
+                }
+            }
+            size = 0;
+            return file;
+        }
+
+        int getDuplicateCount() {
+            return duplicates;
+        }
+
+        // Quicksort of the two parallel arrays by the state codes.
+        private void sort(int low, int high) {
+            while (high - low > 16) {
+                long pivot = states[(low + high) >>> 1];
+                int i = low;
+                int j = high;
+                while (i <= j) {
+                    while (states[i] < pivot) {
+                        i++;
+                    }
+                    while (states[j] > pivot) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        swap(i++, j--);
+                    }
+                }
+                // Recurse into the smaller part, loop on the larger one, so the stack stays shallow.
+                if (j - low < high - i) {
+                    sort(low, j);
+                    low = i;
+                } else {
+                    sort(i, high);
+                    high = j;
+                }
+            }
+            for (int i = low + 1; i <= high; i++) {
+                for (int j = i; j > low && states[j - 1] > states[j]; j--) {
+                    swap(j, j - 1);
+                }
+            }
+        }
+
+        private void swap(int i, int j) {
+            long state = states[i];
+            states[i] = states[j];
+            states[j] = state;
+            long parent = parents[i];
+            parents[i] = parents[j];
+            parents[j] = parent;
+        }
+    }
+
+    // Writes records sequentially. The final size of a layer is not known in advance,
+    // so records are written through a buffered channel instead of a mapping.
+    private static class RecordWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_SIZE * 4096);
+
+        RecordWriter(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void write(long state, long parent) throws IOException {
+            if (buffer.remaining() < RECORD_SIZE) {
+                flush();
+            }
+            buffer.putLong(state).putLong(parent);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+            channel.close();
+        }
+    }
+
+    // A sorted file of records, read through memory-mapped windows.
+    private static class LayerFile {
+        private static final long WINDOW_RECORDS = 1 << 22; // 64 MiB windows.
+
+        private final Path file;
+        private final long count;
+        private MappedByteBuffer window;
+        private long windowStart = -1; // The index of the first record in the window.
+
+        LayerFile(Path file) throws IOException {
+            this.file = file;
+            count = Files.size(file) / RECORD_SIZE;
+        }
+
+        long count() {
+            return count;
+        }
+
+        long stateAt(long index) {
+            return window(index).getLong((int) ((index - windowStart) * RECORD_SIZE));
+        }
+
+        long parentAt(long index) {
+            return window(index).getLong((int) ((index - windowStart) * RECORD_SIZE + 8));
+        }
+
+        // Binary search for a state code. Returns the index of its record, or -1 if it is not in the file.
+        long find(long state) {
+            long low = 0;
+            long high = count - 1;
+            while (low <= high) {
+                long middle = (low + high) >>> 1;
+                long middleState = stateAt(middle);
+                if (middleState < state) {
+                    low = middle + 1;
+                } else if (middleState > state) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -1;
+        }
+
+        private MappedByteBuffer window(long index) {
+            if (windowStart < 0 || index < windowStart || index >= windowStart + WINDOW_RECORDS) {
+                windowStart = index / WINDOW_RECORDS * WINDOW_RECORDS;
+                long records = Math.min(WINDOW_RECORDS, count - windowStart);
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart * RECORD_SIZE, records * RECORD_SIZE);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot map " + file, e);
+                }
+            }
+            return window;
+        }
+    }
+
+    // Sequential reader of a layer file, used by the merge.
+    private static class Cursor {
+        private final LayerFile layer;
+        private long index;
+
+        Cursor(LayerFile layer) {
+            this.layer = layer;
+        }
+
+        boolean hasRecord() {
+            return index < layer.count();
+        }
+
+        long state() {
+            return layer.stateAt(index);
+        }
+
+        long parent() {
+            return layer.parentAt(index);
+        }
+
+        void advance() {
+            index++;
+        }
+
+        // Moves forward to the first record whose state is not less than the given one.
+        // Returns true if the state is in the file. The states are asked in increasing order during the merge.
+        boolean skipTo(long state) {
+            while (hasRecord() && state() < state) {
+                index++;
+            }
+            return hasRecord() && state() == state;
+        }
+    }
+}
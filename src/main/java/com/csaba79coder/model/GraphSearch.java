@@ -1,16 +1,19 @@
 package com.csaba79coder.model;
 
-import java.util.Stack;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 /**
  * Ancestor of all graph search algorithms.
  * Graph search algorithms only need to implement the Search method.
  * It returns a terminal node if a solution is found, otherwise, it returns null.
  * The solution is built by traversing parent references upward from the terminal node.
+ * A SearchListener can be attached to a search to observe it (see search(SearchListener)).
  */
 
 public abstract class GraphSearch {
     private final Node startNode; // The start node for the graph search.
+    private SearchListener listener = SearchListener.NONE; // Notified about the progress of the search.
 
     public GraphSearch(Node startNode) {
         this.startNode = startNode;
@@ -31,9 +34,110 @@ public abstract class GraphSearch {
     public abstract Node search();
 
     /**
-     * Prints the solution based on a terminal node.
+     * Runs the search like search(), and notifies the listener about its progress
+     * (e.g., a SearchStatistics to count the expanded nodes, or a JfrSearchListener to record JFR events).
+     * The listener is only attached for this one search.
+     */
+    public Node search(SearchListener listener) {
+        setSearchListener(listener);
+        try {
+            listener.searchStarted(startNode);
+            Node terminalNode = search();
+            listener.searchFinished(terminalNode);
+            return terminalNode;
+        } finally {
+            setSearchListener(SearchListener.NONE);
+        }
+    }
+
+    /**
+     * Runs the search within the budget, and returns its result even if it is stopped early.
+     * The search stops when the time or node limit of the budget is reached, or when the token is cancelled.
+     * Then the result holds the best node found so far (the anytime result, see SearchResult).
+     * The limits are checked at every expansion, so a search stops soon after a limit is reached.
+     * The token may be null.
+     */
+    public SearchResult search(SearchBudget budget, CancellationToken token) {
+        return search(budget, token, SearchListener.NONE);
+    }
+
+    public SearchResult search(SearchBudget budget, CancellationToken token, SearchListener listener) {
+        SearchMonitor monitor = new SearchMonitor(budget, token == null ? new CancellationToken() : token, listener,
+                getHeuristic());
+        Node terminalNode;
+        try {
+            terminalNode = search(monitor);
+        } catch (RuntimeException e) {
+            if (!isStop(e)) {
+                throw e;
+            }
+            listener.searchFinished(null);
+            return monitor.result(null, true);
+        }
+        return monitor.result(terminalNode, false);
+    }
+
+    // Parallel searches may rethrow the Stop of a worker wrapped into another exception.
+    private static boolean isStop(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SearchMonitor.Stop) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The heuristic used to choose the best partial result of a search stopped early.
+    // Searches guided by a heuristic override it. By default, the deepest node is the best.
+    Heuristic getHeuristic() {
+        return null;
+    }
+
+    // Searches that delegate to other searches pass their listener on with this.
+    void setSearchListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    protected final SearchListener getSearchListener() {
+        return listener;
+    }
+
+    // The notification methods below do nothing if no listener is attached,
+    // so the hooks cost only a comparison on the hot path of the searches.
+    protected final void fireNodeGenerated(Node node) {
+        if (listener != SearchListener.NONE) {
+            listener.nodeGenerated(node);
+        }
+    }
+
+    protected final void fireNodeExpanded(Node node) {
+        if (listener != SearchListener.NONE) {
+            listener.nodeExpanded(node);
+        }
+    }
+
+    protected final void fireDuplicateRejected(Node node) {
+        if (listener != SearchListener.NONE) {
+            listener.duplicateRejected(node);
+        }
+    }
+
+    protected final void fireFrontierSizeChanged(int size) {
+        if (listener != SearchListener.NONE) {
+            listener.frontierSizeChanged(size);
+        }
+    }
+
+    protected final void fireBacktracked(Node node) {
+        if (listener != SearchListener.NONE) {
+            listener.backtracked(node);
+        }
+    }
+
+    /**
+     * Prints the solution based on a terminal node, from the start state to the terminal state.
      * It assumes that by following parent references of the terminal node,
-     * you can reach the start node. It reverses the order of nodes to print the solution correctly.
+     * you can reach the start node. The nodes are pushed onto a stack, so they are printed in reverse order of the walk.
      * If the node is null, it prints "No solution."
      */
     public void printSolution(Node terminalNode) {
@@ -42,15 +146,12 @@ public abstract class GraphSearch {
             return;
         }
 
-        // Reverse the order of nodes.
-        Stack<Node> solution = new Stack<>();
-        Node currentNode = terminalNode;
-        while (currentNode != null) {
+        // The last node pushed (the start node) is the first one iterated.
+        Deque<Node> solution = new ArrayDeque<>();
+        for (Node currentNode = terminalNode; currentNode != null; currentNode = currentNode.getParent()) {
             solution.push(currentNode);
-            currentNode = currentNode.getParent();
         }
 
-        // Now, print the solution.
         for (Node node : solution) {
             System.out.println(node);
         }
@@ -0,0 +1,11 @@
+package com.csaba79coder.model;
+
+/**
+ * A class implementing greedy best-first search: best-first search with f = h.
+ * It usually finds a solution quickly, but the solution is not necessarily optimal.
+ */
+public class GreedyBestFirstSearch extends BestFirstSearch {
+    public GreedyBestFirstSearch(Node startNode, Heuristic heuristic) {
+        super(startNode, heuristic, 0, 1);
+    }
+}
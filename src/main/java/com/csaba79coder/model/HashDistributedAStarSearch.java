@@ -0,0 +1,203 @@
+package com.csaba79coder.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A class implementing hash-distributed A* (HDA*).
+ * Every state is owned by one of the worker threads, chosen by the hash code of the state.
+ * Each worker has its own open list and closed list, so no lock is needed on them.
+ * A generated child is sent to the mailbox (a lock-free queue) of its owner, which puts it into its open list,
+ * unless it already has a path to the state that is at least as cheap.
+ * When a terminal node is generated, it becomes the incumbent solution if it is cheaper than the current one,
+ * and nodes whose f is not below the cost of the incumbent are no longer expanded.
+ * The search terminates when every worker is idle and no message is in flight.
+ * At that point every node with a smaller f than the cost of the incumbent has been expanded,
+ * so if the heuristic is admissible, the incumbent is optimal.
+ * It works for any state class that overrides equals and hashCode properly.
+ */
+public class HashDistributedAStarSearch extends GraphSearch {
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final Heuristic heuristic;
+    private final int workerCount;
+    private final AtomicReference<Node> incumbent = new AtomicReference<>();
+    // Number of messages in flight plus the number of active workers. The search is over when it drops to 0.
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile boolean done;
+    private List<Worker> workers;
+
+    public HashDistributedAStarSearch(Node startNode, Heuristic heuristic, int workerCount) {
+        super(startNode);
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("At least one worker is needed.");
+        }
+        this.heuristic = heuristic;
+        this.workerCount = workerCount;
+    }
+
+    public HashDistributedAStarSearch(Node startNode, Heuristic heuristic) {
+        this(startNode, heuristic, Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    Heuristic getHeuristic() {
+        return heuristic;
+    }
+
+    @Override
+    public Node search() {
+        if (getStartNode().isTerminalNode()) {
+            return getStartNode();
+        }
+        incumbent.set(null);
+        failure.set(null);
+        done = false;
+        workers = new ArrayList<>();
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(new Worker());
+        }
+        // Every worker starts active, and the start node is a message in flight.
+        pending.set(workerCount + 1);
+        workers.get(owner(getStartNode())).mailbox.offer(getStartNode());
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < workerCount; i++) {
+            Thread thread = new Thread(workers.get(i), "hda-star-worker-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            done = true;
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The search was interrupted.", e);
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("A worker of the search failed.", failure.get());
+        }
+        return incumbent.get();
+    }
+
+    // The owner of a state is chosen by its hash code. The bits are spread, because the hash codes of states are often small.
+    private int owner(Node node) {
+        int hash = node.hashCode() * 0x9E3779B9;
+        return Math.floorMod(hash ^ (hash >>> 16), workerCount);
+    }
+
+    private int incumbentCost() {
+        Node solution = incumbent.get();
+        return solution == null ? Integer.MAX_VALUE : solution.getDepth();
+    }
+
+    // Replaces the incumbent if the terminal node is cheaper.
+    private void offerSolution(Node terminalNode) {
+        while (true) {
+            Node solution = incumbent.get();
+            if (solution != null && solution.getDepth() <= terminalNode.getDepth()) {
+                return;
+            }
+            if (incumbent.compareAndSet(solution, terminalNode)) {
+                return;
+            }
+        }
+    }
+
+    private class Worker implements Runnable {
+        private final Queue<Node> mailbox = new ConcurrentLinkedQueue<>();
+        private final IndexedNodeHeap open = new IndexedNodeHeap(); // Open nodes owned by this worker.
+        private final Map<Node, Integer> bestCosts = new HashMap<>(); // The cheapest known cost of every owned state.
+        private final List<Node> newNodes = new ArrayList<>();
+
+        @Override
+        public void run() {
+            try {
+                while (!done) {
+                    Node message;
+                    while ((message = mailbox.poll()) != null) {
+                        receive(message);
+                        pending.decrementAndGet();
+                    }
+                    if (!open.isEmpty() && (open.peekPriority() >>> 32) < incumbentCost()) {
+                        expand(open.poll());
+                        continue;
+                    }
+                    // The remaining open nodes cannot lead to a cheaper solution than the incumbent.
+                    open.clear();
+                    if (pending.decrementAndGet() == 0) {
+                        done = true;
+                        return;
+                    }
+                    waitForMessage();
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+                done = true;
+            }
+        }
+
+        // An idle worker becomes active again when it gets a message.
+        // The message is counted in pending until it is processed, so pending cannot drop to 0 in the meantime.
+        private void waitForMessage() {
+            while (!done) {
+                if (!mailbox.isEmpty()) {
+                    pending.incrementAndGet();
+                    return;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+
+        private void receive(Node node) {
+            int cost = node.getDepth();
+            long f = (long) cost + heuristic.estimate(node.getState());
+            if (f >= incumbentCost()) {
+                return;
+            }
+            Integer bestCost = bestCosts.get(node);
+            if (bestCost != null && bestCost <= cost) {
+                fireDuplicateRejected(node);
+                return;
+            }
+            // A new state, or a cheaper path to an open or closed state (a closed state is reopened).
+            bestCosts.put(node, cost);
+            long priority = (f << 32) | (Integer.MAX_VALUE - cost);
+            if (open.contains(node)) {
+                open.decreaseKey(node, priority);
+            } else {
+                open.insert(node, priority);
+            }
+        }
+
+        private void expand(Node currentNode) {
+            currentNode.expand(newNodes);
+            fireNodeExpanded(currentNode);
+            for (Node childNode : newNodes) {
+                fireNodeGenerated(childNode);
+                if (childNode.isTerminalNode()) {
+                    offerSolution(childNode);
+                    continue;
+                }
+                Worker owner = workers.get(owner(childNode));
+                if (owner == this) {
+                    receive(childNode);
+                } else {
+                    pending.incrementAndGet();
+                    owner.mailbox.offer(childNode);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.csaba79coder.model;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+/**
+ * The default visited set, backed by a hash set.
+ * Adding and checking a node costs O(1) on average, if the state class overrides equals and hashCode properly.
+ */
+public class HashVisitedSet implements VisitedSet {
+    private final Set<Node> nodes;
+
+    public HashVisitedSet() {
+        nodes = new HashSet<>();
+    }
+
+    // Use this constructor if the expected number of nodes is known, so the set does not need to be resized.
+    public HashVisitedSet(int expectedSize) {
+        nodes = HashSet.newHashSet(expectedSize);
+    }
+
+    @Override
+    public boolean add(Node node) {
+        return nodes.add(node);
+    }
+
+    @Override
+    public boolean contains(Node node) {
+        return nodes.contains(node);
+    }
+
+    @Override
+    public boolean remove(Node node) {
+        return nodes.remove(node);
+    }
+
+    @Override
+    public int size() {
+        return nodes.size();
+    }
+
+    @Override
+    public void clear() {
+        nodes.clear();
+    }
+
+    @Override
+    public void forEachCode(LongConsumer action) {
+        for (Node node : nodes) {
+            action.accept(node.getState().encode());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.csaba79coder.model;
+
+/**
+ * A heuristic estimates the cost of the cheapest path from a state to a goal state.
+ * Every operator costs 1, so the estimate is a number of operator applications.
+ * The estimate must be 0 for goal states.
+ * A* only returns optimal solutions if the heuristic is admissible, i.e., it never overestimates.
+ */
+@FunctionalInterface
+public interface Heuristic {
+    // The heuristic that always returns 0. With this, A* behaves like uniform-cost search.
+    Heuristic ZERO = state -> 0;
+
+    int estimate(AbstractState state);
+}
@@ -0,0 +1,55 @@
+package com.csaba79coder.model;
+
+/**
+ * Orders the operators by the heuristic estimate of the states they lead to, the smallest first.
+ * Operators with equal estimates stay in index order. Operators that are not applicable are left out,
+ * since the estimate applies every operator anyway.
+ * If the state supports undoing (see AbstractState.isUndoable), every operator is applied and undone in place,
+ * otherwise it is applied to a clone.
+ */
+public class HeuristicMoveOrdering implements MoveOrdering {
+    private final Heuristic heuristic;
+    private int[] estimates = new int[8]; // The estimates of the operators in the order being built.
+
+    public HeuristicMoveOrdering(Heuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    @Override
+    public int order(AbstractState state, int[] order) {
+        if (estimates.length < state.getOperatorCount()) {
+            estimates = new int[state.getOperatorCount()];
+        }
+        int count = 0;
+        for (int i = 0; i < state.getOperatorCount(); i++) {
+            int estimate = estimate(state, i);
+            if (estimate < 0) {
+                continue;
+            }
+            // Insertion sort, the number of operators is small.
+            int k = count++;
+            while (k > 0 && estimates[k - 1] > estimate) {
+                order[k] = order[k - 1];
+                estimates[k] = estimates[k - 1];
+                k--;
+            }
+            order[k] = i;
+            estimates[k] = estimate;
+        }
+        return count;
+    }
+
+    // Returns the estimate of the state produced by the i-th operator, or -1 if it is not applicable.
+    private int estimate(AbstractState state, int i) {
+        if (state.isUndoable()) {
+            if (!state.isSuperOperator(i)) {
+                return -1;
+            }
+            int estimate = heuristic.estimate(state);
+            state.undoSuperOperator(i);
+            return estimate;
+        }
+        AbstractState child = (AbstractState) state.clone();
+        return child.isSuperOperator(i) ? heuristic.estimate(child) : -1;
+    }
+}
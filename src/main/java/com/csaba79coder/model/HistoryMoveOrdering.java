@@ -0,0 +1,59 @@
+package com.csaba79coder.model;
+
+import java.util.Arrays;
+
+/**
+ * Orders the operators by how many times they were used by the solutions found before, the most used first.
+ * Operators with equal scores stay in index order, so without a history it is the index order.
+ * The history is kept between searches, so it pays off when the same ordering is used for many searches
+ * of similar problems.
+ */
+public class HistoryMoveOrdering implements MoveOrdering {
+    private long[] scores = new long[8]; // The number of times each operator was used by a solution.
+
+    @Override
+    public int order(AbstractState state, int[] order) {
+        if (scores.length < state.getOperatorCount()) {
+            scores = Arrays.copyOf(scores, state.getOperatorCount());
+        }
+        boolean check = state.hasApplicabilityCheck();
+        int count = 0;
+        for (int i = 0; i < state.getOperatorCount(); i++) {
+            if (check && !state.isApplicable(i)) {
+                continue;
+            }
+            // Insertion sort, the number of operators is small.
+            int k = count++;
+            while (k > 0 && scores[order[k - 1]] < scores[i]) {
+                order[k] = order[k - 1];
+                k--;
+            }
+            order[k] = i;
+        }
+        return count;
+    }
+
+    // Every operator of the solution gets a point.
+    @Override
+    public void solutionFound(Node terminalNode) {
+        for (Node node = terminalNode; node.getParent() != null; node = node.getParent()) {
+            int operator = node.getOperator();
+            if (operator < 0) {
+                continue;
+            }
+            if (operator >= scores.length) {
+                scores = Arrays.copyOf(scores, operator + 1);
+            }
+            scores[operator]++;
+        }
+    }
+
+    public long getScore(int operator) {
+        return operator < scores.length ? scores[operator] : 0;
+    }
+
+    // Forgets the history.
+    public void clear() {
+        Arrays.fill(scores, 0);
+    }
+}
@@ -0,0 +1,25 @@
+package com.csaba79coder.model;
+
+/**
+ * A lower bound on the number of knight moves needed to reach the canteen.
+ * A knight move changes one coordinate by at most 2 and the sum of the distances by at most 3,
+ * so at least max(ceil(a/2), ceil((a+b)/3)) moves are needed, where a >= b are the distances along the axes.
+ * Every move changes the parity of x+y, so the bound is rounded up to the parity of a+b.
+ * The bound is admissible and consistent.
+ */
+public class HungryKnightHeuristic implements Heuristic {
+    @Override
+    public int estimate(AbstractState state) {
+        HungryKnightState knight = (HungryKnightState) state;
+        int dx = Math.abs(knight.getGoalX() - knight.getX());
+        int dy = Math.abs(knight.getGoalY() - knight.getY());
+        int a = Math.max(dx, dy);
+        int b = Math.min(dx, dy);
+        int bound = Math.max((a + 1) / 2, (a + b + 2) / 3);
+        // The number of moves has the same parity as a+b.
+        if (((bound + a + b) & 1) != 0) {
+            bound++;
+        }
+        return bound;
+    }
+}
@@ -49,35 +49,68 @@ public class HungryKnightState extends AbstractState {
     // x = N+1
     // y = N+1
 
+    // The 8 knight moves, in the order of the super operator.
+    private static final int[] MOVE_X = {1, 1, -1, -1, 2, 2, -2, -2};
+    private static final int[] MOVE_Y = {2, -2, 2, -2, 1, -1, 1, -1};
+
+    // Maps the state to the one with x <= y, by transposing the board if needed.
+    public static final Canonicalizer TRANSPOSE = state -> {
+        HungryKnightState knight = (HungryKnightState) state;
+        if (knight.x <= knight.y) {
+            return knight;
+        }
+        HungryKnightState image = (HungryKnightState) knight.clone();
+        image.x = knight.y;
+        image.y = knight.x;
+        return image;
+    };
+
     // By default, the class represents a 3x3 chessboard.
-    private static int N = 3;
+    // The size belongs to the instance, so states of different boards can be searched at the same time.
+    private final int n;
     // Fields for internal state representation.
     private int x;
     private int y;
 
     // Set the initial state (default constructor).
     public HungryKnightState() {
-        x = 2; // Starting from the top-left corner (margins included), so (2,2).
-        y = 2;
+        this(3);
     }
 
     // Set the initial state and specify the board size (custom constructor).
     public HungryKnightState(int n) {
-        x = 2;
+        x = 2; // Starting from the top-left corner (margins included), so (2,2).
         y = 2;
-        N = n;
+        this.n = n;
+    }
+
+    int getX() {
+        return x;
+    }
+
+    int getY() {
+        return y;
+    }
+
+    // The coordinates of the canteen (margins included).
+    int getGoalX() {
+        return n + 1;
+    }
+
+    int getGoalY() {
+        return n + 1;
     }
 
     @Override
     public boolean isGoalState() {
         // The bottom-right corner (margins included) is at (N+1, N+1).
-        return x == N + 1 && y == N + 1;
+        return x == n + 1 && y == n + 1;
     }
 
     @Override
     public boolean isState() {
         // The knight is not on the margin.
-        return x >= 2 && y >= 2 && x <= N + 1 && y <= N + 1;
+        return x >= 2 && y >= 2 && x <= n + 1 && y <= n + 1;
     }
 
     // Check if it's a valid knight move. If not, return false.
@@ -139,20 +172,109 @@ public class HungryKnightState extends AbstractState {
         return 8;
     }
 
+    // A knight move is applicable if the knight stays on the board.
+    @Override
+    boolean isApplicable(int i) {
+        if (i < 0 || i >= MOVE_X.length) {
+            return false;
+        }
+        int newX = x + MOVE_X[i];
+        int newY = y + MOVE_Y[i];
+        return newX >= 2 && newY >= 2 && newX <= n + 1 && newY <= n + 1;
+    }
+
+    @Override
+    boolean hasApplicabilityCheck() {
+        return true;
+    }
+
+    @Override
+    boolean isUndoable() {
+        return true;
+    }
+
+    @Override
+    void undoSuperOperator(int i) {
+        x -= MOVE_X[i];
+        y -= MOVE_Y[i];
+    }
+
+    // The knight is in the canteen.
+    @Override
+    AbstractState getGoalState() {
+        HungryKnightState goal = (HungryKnightState) clone();
+        goal.x = n + 1;
+        goal.y = n + 1;
+        return goal;
+    }
+
+    // The set of knight moves is closed under inversion, so the predecessor operators are the base operators.
+    @Override
+    boolean isPredecessorOperator(int i) {
+        return isSuperOperator(i);
+    }
+
     // When printing, subtract the margin width from x and y.
     @Override
     public String toString() {
         return (x - 2) + " : " + (y - 2);
     }
 
+    @Override
+    boolean isEncodable() {
+        return true;
+    }
+
+    // x goes into the upper, y into the lower 32 bits.
+    @Override
+    long encode() {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    @Override
+    void decode(long code) {
+        x = (int) (code >>> 32);
+        y = (int) code;
+    }
+
+    // The squares of the board, row by row.
+    @Override
+    int getStateSpaceSize() {
+        return Math.multiplyExact(n, n);
+    }
+
+    @Override
+    int toIndex() {
+        return (x - 2) * n + (y - 2);
+    }
+
+    @Override
+    void fromIndex(int index) {
+        x = index / n + 2;
+        y = index % n + 2;
+    }
+
+    @Override
+    long getInstanceKey() {
+        return n;
+    }
+
     @Override
     public boolean equals(Object a) {
         HungryKnightState aa = (HungryKnightState) a;
-        return aa.x == x && aa.y == y;
+        return aa.n == n && aa.x == x && aa.y == y;
     }
 
+    // x + y would map a whole anti-diagonal to the same bucket, so mix the coordinates.
     @Override
     public int hashCode() {
-        return x + y;
+        return 31 * (31 * n + x) + y;
+    }
+
+    // The start and the canteen are on the main diagonal, and the knight moves are symmetric to it,
+    // so a state and its mirror image have the same distance from the start and from the canteen.
+    @Override
+    Canonicalizer getCanonicalizer() {
+        return TRANSPOSE;
     }
 }
@@ -0,0 +1,159 @@
+package com.csaba79coder.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An indexed binary min-heap of nodes, used as the open list of best-first searches.
+ * Each node has a long priority; the node with the lowest priority is on top.
+ * A hash index maps every node (by its state) to its position in the heap,
+ * so contains and get cost O(1), and decreaseKey costs O(log n).
+ * There is at most one node with a given state in the heap.
+ */
+public class IndexedNodeHeap {
+    private Node[] nodes = new Node[16];
+    private long[] priorities = new long[16];
+    private int size;
+    private final Map<Node, Integer> index = new HashMap<>(); // Node (by state) -> position in the heap.
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(Node node) {
+        return index.containsKey(node);
+    }
+
+    // Returns the node in the heap with the same state as the given node, or null if there is no such node.
+    public Node get(Node node) {
+        Integer position = index.get(node);
+        return position == null ? null : nodes[position];
+    }
+
+    // Inserts a node whose state is not in the heap yet.
+    public void insert(Node node, long priority) {
+        if (index.containsKey(node)) {
+            throw new IllegalArgumentException("The state is already in the heap: " + node);
+        }
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, size * 2);
+            priorities = Arrays.copyOf(priorities, size * 2);
+        }
+        nodes[size] = node;
+        priorities[size] = priority;
+        index.put(node, size);
+        siftUp(size++);
+    }
+
+    // Returns the priority of the node in the heap with the same state as the given node.
+    public long getPriority(Node node) {
+        Integer position = index.get(node);
+        if (position == null) {
+            throw new IllegalArgumentException("The state is not in the heap: " + node);
+        }
+        return priorities[position];
+    }
+
+    // Replaces the node with the same state by the given node (e.g., one with a cheaper path), keeping its priority.
+    public void replace(Node node) {
+        Integer position = index.get(node);
+        if (position == null) {
+            throw new IllegalArgumentException("The state is not in the heap: " + node);
+        }
+        nodes[position] = node;
+        index.put(node, position);
+    }
+
+    // Replaces the node with the same state by the given node (e.g., one with a cheaper path),
+    // and lowers its priority. The new priority must not be higher than the old one.
+    public void decreaseKey(Node node, long priority) {
+        Integer position = index.get(node);
+        if (position == null) {
+            throw new IllegalArgumentException("The state is not in the heap: " + node);
+        }
+        if (priority > priorities[position]) {
+            throw new IllegalArgumentException("The priority cannot be increased.");
+        }
+        nodes[position] = node;
+        priorities[position] = priority;
+        index.put(node, position);
+        siftUp(position);
+    }
+
+    // Returns the priority of the node on top of the heap.
+    public long peekPriority() {
+        if (size == 0) {
+            throw new IllegalStateException("The heap is empty.");
+        }
+        return priorities[0];
+    }
+
+    // Removes and returns the node with the lowest priority, or returns null if the heap is empty.
+    public Node poll() {
+        if (size == 0) {
+            return null;
+        }
+        Node top = nodes[0];
+        index.remove(top);
+        size--;
+        if (size > 0) {
+            move(size, 0);
+            siftDown(0);
+        }
+        nodes[size] = null;
+        return top;
+    }
+
+    public void clear() {
+        Arrays.fill(nodes, 0, size, null);
+        size = 0;
+        index.clear();
+    }
+
+    private void siftUp(int position) {
+        Node node = nodes[position];
+        long priority = priorities[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (priorities[parent] <= priority) {
+                break;
+            }
+            move(parent, position);
+            position = parent;
+        }
+        place(node, priority, position);
+    }
+
+    private void siftDown(int position) {
+        Node node = nodes[position];
+        long priority = priorities[position];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && priorities[child + 1] < priorities[child]) {
+                child++;
+            }
+            if (priority <= priorities[child]) {
+                break;
+            }
+            move(child, position);
+            position = child;
+        }
+        place(node, priority, position);
+    }
+
+    private void move(int from, int to) {
+        place(nodes[from], priorities[from], to);
+    }
+
+    private void place(Node node, long priority, int position) {
+        nodes[position] = node;
+        priorities[position] = priority;
+        index.put(node, position);
+    }
+}
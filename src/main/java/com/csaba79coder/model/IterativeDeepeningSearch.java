@@ -0,0 +1,54 @@
+package com.csaba79coder.model;
+
+/**
+ * A class implementing iterative deepening search on top of the memory-based, depth-limited Backtrack.
+ * The Backtrack is run with increasing limits, until it finds a solution or no node is cut off by the limit.
+ * - Without a heuristic (IDDFS), the limit bounds the depth and grows by one in each iteration.
+ *   The returned solution is a shallowest one.
+ * - With a heuristic (IDA*), the limit bounds depth + heuristic, and the next limit is the smallest
+ *   bound that was cut off. If the heuristic is admissible, the returned solution is optimal.
+ * Only the current path is stored, so the memory usage is linear in the depth of the solution.
+ * A MoveOrdering (see setMoveOrdering) is used by every iteration.
+ */
+public class IterativeDeepeningSearch extends GraphSearch {
+    private final Heuristic heuristic;
+    private MoveOrdering moveOrdering;
+
+    public IterativeDeepeningSearch(Node startNode, Heuristic heuristic) {
+        super(startNode);
+        this.heuristic = heuristic;
+    }
+
+    public IterativeDeepeningSearch(Node startNode) {
+        this(startNode, Heuristic.ZERO);
+    }
+
+    @Override
+    Heuristic getHeuristic() {
+        return heuristic;
+    }
+
+    public void setMoveOrdering(MoveOrdering moveOrdering) {
+        this.moveOrdering = moveOrdering;
+    }
+
+    @Override
+    public Node search() {
+        // The Backtrack cuts off the nodes with depth + heuristic >= limit.
+        int limit = heuristic.estimate(getStartNode().getState()) + 1;
+        while (true) {
+            BackTrack backTrack = new BackTrack(getStartNode(), limit, true, 0, heuristic);
+            backTrack.setSearchListener(getSearchListener());
+            backTrack.setMoveOrdering(moveOrdering);
+            Node terminalNode = backTrack.search();
+            if (terminalNode != null) {
+                return terminalNode;
+            }
+            // If no node was cut off, the whole state space has been explored.
+            if (backTrack.getNextLimit() == Integer.MAX_VALUE) {
+                return null;
+            }
+            limit = backTrack.getNextLimit();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.csaba79coder.model;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A search listener that emits JDK Flight Recorder events:
+ * a Search event for the whole search and a Node Expanded event for every expansion (disabled by default).
+ * When no recording is running, the events are not committed, and the listener costs little more than a counter.
+ */
+public class JfrSearchListener implements SearchListener {
+    private final String searchName;
+    private final LongAdder nodesExpanded = new LongAdder();
+    private SearchEvents.SearchEvent searchEvent;
+
+    public JfrSearchListener(String searchName) {
+        this.searchName = searchName;
+    }
+
+    @Override
+    public void searchStarted(Node startNode) {
+        nodesExpanded.reset();
+        searchEvent = new SearchEvents.SearchEvent();
+        if (searchEvent.isEnabled()) {
+            searchEvent.search = searchName;
+            searchEvent.startState = startNode.toString();
+        }
+        searchEvent.begin();
+    }
+
+    @Override
+    public void nodeExpanded(Node node) {
+        nodesExpanded.increment();
+        SearchEvents.NodeExpandedEvent event = new SearchEvents.NodeExpandedEvent();
+        if (event.shouldCommit() && node != null) {
+            event.search = searchName;
+            event.depth = node.getDepth();
+            event.state = node.toString();
+            event.commit();
+        }
+    }
+
+    @Override
+    public void searchFinished(Node terminalNode) {
+        SearchEvents.SearchEvent event = searchEvent;
+        event.end();
+        if (event.shouldCommit()) {
+            event.solutionFound = terminalNode != null;
+            event.solutionDepth = terminalNode == null ? -1 : terminalNode.getDepth();
+            event.nodesExpanded = nodesExpanded.sum();
+            event.commit();
+        }
+    }
+}
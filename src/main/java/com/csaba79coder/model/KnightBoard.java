@@ -0,0 +1,107 @@
+package com.csaba79coder.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The board of the Hungry Knight problem for the fast knight engine (see KnightBoardState and KnightBoardSearch).
+ * Like in HungryKnightState, the n*n board is surrounded by a 2-wide margin, and the squares of the padded
+ * (n+4)*(n+4) board are numbered row by row: the square of (x, y) is x*(n+4)+y, margins included.
+ * A knight move is then a fixed offset of the square number, and the margin keeps every move inside the array,
+ * so a move is checked by looking up a single bit of the free squares.
+ * Some squares of the board may be blocked, the knight cannot step on them.
+ * A board is immutable, so it can be shared by any number of states and searches.
+ */
+public final class KnightBoard {
+    // The 8 knight moves, in the order of the super operator of HungryKnightState.
+    private static final int[] MOVE_X = {1, 1, -1, -1, 2, 2, -2, -2};
+    private static final int[] MOVE_Y = {2, -2, 2, -2, 1, -1, 1, -1};
+
+    private final int n; // The size of the board, without the margin.
+    private final int width; // n + 4
+    private final long[] free; // Bitset of the squares the knight may step on. The margin and the blocked squares are 0.
+    private final int[] moveOffsets; // The change of the square number made by each knight move.
+
+    public KnightBoard(int n) {
+        this(n, new BitSet());
+    }
+
+    // The blocked squares are given by their board coordinates (without the margin): the bit of (row, column) is row*n+column.
+    public KnightBoard(int n, BitSet blocked) {
+        if (n < 1) {
+            throw new IllegalArgumentException("The board size must be positive.");
+        }
+        this.n = n;
+        width = Math.addExact(n, 4);
+        free = new long[(Math.multiplyExact(width, width) + 63) >>> 6];
+        for (int row = 0; row < n; row++) {
+            for (int column = 0; column < n; column++) {
+                if (!blocked.get(row * n + column)) {
+                    int square = square(row + 2, column + 2);
+                    free[square >>> 6] |= 1L << square;
+                }
+            }
+        }
+        moveOffsets = new int[MOVE_X.length];
+        for (int i = 0; i < MOVE_X.length; i++) {
+            moveOffsets[i] = MOVE_X[i] * width + MOVE_Y[i];
+        }
+    }
+
+    public int getSize() {
+        return n;
+    }
+
+    // The size in the upper, the hash of the free squares in the lower 32 bits, so boards with other blocked squares differ.
+    long getFingerprint() {
+        return ((long) n << 32) | (Arrays.hashCode(free) & 0xFFFFFFFFL);
+    }
+
+    // Checks if the square (row, column) of the board is blocked, in board coordinates (without the margin).
+    public boolean isBlocked(int row, int column) {
+        return !isFree(square(row + 2, column + 2));
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    // The number of the square (x, y), margins included.
+    int square(int x, int y) {
+        return x * width + y;
+    }
+
+    int getX(int square) {
+        return square / width;
+    }
+
+    int getY(int square) {
+        return square % width;
+    }
+
+    // The knight starts in the top-left corner, and the canteen is in the bottom-right corner.
+    int getStartSquare() {
+        return square(2, 2);
+    }
+
+    int getGoalSquare() {
+        return square(n + 1, n + 1);
+    }
+
+    boolean isFree(int square) {
+        return (free[square >>> 6] & (1L << square)) != 0;
+    }
+
+    int getMoveCount() {
+        return moveOffsets.length;
+    }
+
+    int getMoveOffset(int i) {
+        return moveOffsets[i];
+    }
+
+    // The bitset of the free squares, not copied. It must not be modified.
+    long[] getFreeSquares() {
+        return free;
+    }
+}
@@ -0,0 +1,141 @@
+package com.csaba79coder.model;
+
+/**
+ * A class implementing breadth-first search for the Hungry Knight problem on bitboards.
+ * The squares of the frontier and the visited squares are bitsets over the padded board (see KnightBoard).
+ * A layer is expanded bit-parallel: for every knight move, the frontier is shifted by the offset of the move
+ * and masked with the free and not yet visited squares, so 64 squares are handled by a few word operations.
+ * The nonzero words of the frontier are kept in a list, so a layer costs time in proportion to its size,
+ * not to the size of the board.
+ * For every newly reached square, the index of the move that reached it is stored in one byte,
+ * so the solution can be followed back from the goal square.
+ * The start node may hold a KnightBoardState or a HungryKnightState. The solution is built as a chain of nodes
+ * of the same state class, by applying the moves to the start node.
+ * There are no nodes during the search, so a listener gets null for every expanded, generated and rejected square.
+ * The squares are only counted for these events if a listener is attached.
+ */
+public class KnightBoardSearch extends GraphSearch {
+    private final KnightBoard board;
+    private final int startSquare;
+
+    public KnightBoardSearch(Node startNode) {
+        super(startNode);
+        AbstractState state = startNode.getState();
+        if (state instanceof KnightBoardState knight) {
+            board = knight.getBoard();
+            startSquare = knight.getSquare();
+        } else if (state instanceof HungryKnightState knight) {
+            board = new KnightBoard(knight.getGoalX() - 1);
+            startSquare = board.square(knight.getX(), knight.getY());
+        } else {
+            throw new IllegalArgumentException("Knight board search cannot solve " + state.getClass().getSimpleName());
+        }
+    }
+
+    @Override
+    public Node search() {
+        if (getStartNode().isTerminalNode()) {
+            return getStartNode();
+        }
+        long[] free = board.getFreeSquares();
+        int words = free.length;
+        long[] visited = new long[words];
+        long[] frontier = new long[words];
+        long[] next = new long[words];
+        // The indexes of the nonzero words of the frontier and of the next frontier.
+        int[] active = new int[words];
+        int[] nextActive = new int[words];
+        byte[] moves = new byte[words << 6]; // The move that reached each square.
+        int goalSquare = board.getGoalSquare();
+        visited[startSquare >>> 6] |= 1L << startSquare;
+        frontier[startSquare >>> 6] |= 1L << startSquare;
+        active[0] = startSquare >>> 6;
+        int activeCount = 1;
+        boolean listening = getSearchListener() != SearchListener.NONE;
+        while (activeCount > 0) {
+            int nextActiveCount = 0;
+            int frontierSize = 0;
+            for (int a = 0; a < activeCount; a++) {
+                int source = active[a];
+                long bits = frontier[source];
+                if (listening) {
+                    for (long b = bits; b != 0; b &= b - 1) {
+                        fireNodeExpanded(null);
+                    }
+                }
+                for (int i = 0; i < board.getMoveCount(); i++) {
+                    int offset = board.getMoveOffset(i);
+                    int wordShift = offset >> 6; // Rounded down, so the bit shift is always between 0 and 63.
+                    int bitShift = offset & 63;
+                    // The shifted word is split between two target words.
+                    for (int part = 0; part < 2; part++) {
+                        long shifted = part == 0 ? bits << bitShift : bitShift == 0 ? 0 : bits >>> (64 - bitShift);
+                        int k = source + wordShift + part;
+                        if (shifted == 0 || k < 0 || k >= words) {
+                            continue;
+                        }
+                        if (listening) {
+                            fireSquares(shifted & free[k], visited[k]);
+                        }
+                        long reached = shifted & free[k] & ~visited[k];
+                        if (reached == 0) {
+                            continue;
+                        }
+                        visited[k] |= reached;
+                        if (next[k] == 0) {
+                            nextActive[nextActiveCount++] = k;
+                        }
+                        next[k] |= reached;
+                        frontierSize += Long.bitCount(reached);
+                        for (long b = reached; b != 0; b &= b - 1) {
+                            moves[(k << 6) + Long.numberOfTrailingZeros(b)] = (byte) i;
+                        }
+                    }
+                }
+            }
+            fireFrontierSizeChanged(frontierSize);
+            if ((visited[goalSquare >>> 6] & (1L << goalSquare)) != 0) {
+                return buildSolution(moves, goalSquare);
+            }
+            // The old frontier is cleared, and the new one takes its place.
+            for (int a = 0; a < activeCount; a++) {
+                frontier[active[a]] = 0;
+            }
+            long[] swapWords = frontier;
+            frontier = next;
+            next = swapWords;
+            int[] swapActive = active;
+            active = nextActive;
+            nextActive = swapActive;
+            activeCount = nextActiveCount;
+        }
+        return null;
+    }
+
+    // Every square a move lands on is generated, and the ones already visited are rejected.
+    private void fireSquares(long generated, long visited) {
+        for (long b = generated; b != 0; b &= b - 1) {
+            fireNodeGenerated(null);
+            if ((visited & Long.lowestOneBit(b)) != 0) {
+                fireDuplicateRejected(null);
+            }
+        }
+    }
+
+    // Follows the moves back from the goal square, and applies them to the start node.
+    private Node buildSolution(byte[] moves, int goalSquare) {
+        int length = 0;
+        for (int square = goalSquare; square != startSquare; square -= board.getMoveOffset(moves[square])) {
+            length++;
+        }
+        byte[] path = new byte[length];
+        for (int square = goalSquare; square != startSquare; square -= board.getMoveOffset(moves[square])) {
+            path[--length] = moves[square];
+        }
+        Node currentNode = getStartNode();
+        for (byte move : path) {
+            currentNode = currentNode.createChild(move);
+        }
+        return currentNode;
+    }
+}
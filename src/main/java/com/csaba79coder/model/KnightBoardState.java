@@ -0,0 +1,146 @@
+package com.csaba79coder.model;
+
+/**
+ * A state of the Hungry Knight problem on a KnightBoard, which may have blocked squares.
+ * The operators are the knight moves in the same order as in HungryKnightState, so the solutions of the two
+ * representations are interchangeable (see SolutionPath).
+ * The position is a single square number, and a move adds a precomputed offset to it.
+ * The applicability of a move is a single bit lookup in the board, no coordinate arithmetic is needed.
+ */
+public class KnightBoardState extends AbstractState {
+    private final KnightBoard board; // Shared by every state of the problem.
+    private int square; // The square of the knight, see KnightBoard.square.
+
+    // The knight starts in the top-left corner of the board, so that square must not be blocked.
+    public KnightBoardState(KnightBoard board) {
+        if (board.isBlocked(0, 0)) {
+            throw new IllegalArgumentException("The start square of the knight is blocked.");
+        }
+        this.board = board;
+        square = board.getStartSquare();
+    }
+
+    // A board of size n without blocked squares.
+    public KnightBoardState(int n) {
+        this(new KnightBoard(n));
+    }
+
+    KnightBoard getBoard() {
+        return board;
+    }
+
+    int getSquare() {
+        return square;
+    }
+
+    @Override
+    public boolean isState() {
+        return board.isFree(square);
+    }
+
+    @Override
+    public boolean isGoalState() {
+        return square == board.getGoalSquare();
+    }
+
+    @Override
+    public int getOperatorCount() {
+        return board.getMoveCount();
+    }
+
+    @Override
+    public boolean isSuperOperator(int i) {
+        if (!isApplicable(i)) {
+            return false;
+        }
+        square += board.getMoveOffset(i);
+        return true;
+    }
+
+    // The margin keeps the target square inside the board array, so only its bit has to be checked.
+    @Override
+    boolean isApplicable(int i) {
+        return i >= 0 && i < board.getMoveCount() && board.isFree(square + board.getMoveOffset(i));
+    }
+
+    @Override
+    boolean hasApplicabilityCheck() {
+        return true;
+    }
+
+    @Override
+    boolean isUndoable() {
+        return true;
+    }
+
+    @Override
+    void undoSuperOperator(int i) {
+        square -= board.getMoveOffset(i);
+    }
+
+    @Override
+    AbstractState getGoalState() {
+        KnightBoardState goal = (KnightBoardState) clone();
+        goal.square = board.getGoalSquare();
+        return goal;
+    }
+
+    // The set of knight moves is closed under inversion, so the predecessor operators are the base operators.
+    @Override
+    boolean isPredecessorOperator(int i) {
+        return isSuperOperator(i);
+    }
+
+    @Override
+    boolean isEncodable() {
+        return true;
+    }
+
+    @Override
+    long encode() {
+        return square;
+    }
+
+    @Override
+    void decode(long code) {
+        square = (int) code;
+    }
+
+    // The squares of the board without the margin, row by row, like in HungryKnightState.
+    @Override
+    int getStateSpaceSize() {
+        return Math.multiplyExact(board.getSize(), board.getSize());
+    }
+
+    @Override
+    int toIndex() {
+        return (board.getX(square) - 2) * board.getSize() + (board.getY(square) - 2);
+    }
+
+    @Override
+    void fromIndex(int index) {
+        square = board.square(index / board.getSize() + 2, index % board.getSize() + 2);
+    }
+
+    @Override
+    long getInstanceKey() {
+        return board.getFingerprint();
+    }
+
+    // When printing, subtract the margin width from x and y.
+    @Override
+    public String toString() {
+        return (board.getX(square) - 2) + " : " + (board.getY(square) - 2);
+    }
+
+    @Override
+    public boolean equals(Object a) {
+        KnightBoardState aa = (KnightBoardState) a;
+        return aa.board == board && aa.square == square;
+    }
+
+    @Override
+    public int hashCode() {
+        return square;
+    }
+}
@@ -0,0 +1,49 @@
+package com.csaba79coder.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * A visited set backed by a list, as in the textbook version of the graph search algorithms.
+ * Every check is a linear scan, so it is only suitable for very small state spaces.
+ * It only needs Node.equals, so it also works for state classes that do not override hashCode.
+ */
+public class LinearVisitedSet implements VisitedSet {
+    private final List<Node> nodes = new ArrayList<>();
+
+    @Override
+    public boolean add(Node node) {
+        if (nodes.contains(node)) {
+            return false;
+        }
+        return nodes.add(node);
+    }
+
+    @Override
+    public boolean contains(Node node) {
+        return nodes.contains(node);
+    }
+
+    @Override
+    public boolean remove(Node node) {
+        return nodes.remove(node);
+    }
+
+    @Override
+    public int size() {
+        return nodes.size();
+    }
+
+    @Override
+    public void clear() {
+        nodes.clear();
+    }
+
+    @Override
+    public void forEachCode(LongConsumer action) {
+        for (Node node : nodes) {
+            action.accept(node.getState().encode());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.csaba79coder.model;
+
+/**
+ * A lower bound on the number of crossings based on the number of people still on the left side.
+ * The boat carries at most k people and somebody has to bring it back,
+ * so a round trip moves at most k-1 people to the right side.
+ * With the boat on the left side and L > k people left, at least 2*ceil((L-k)/(k-1))+1 crossings are needed
+ * (2*(L-2)+1 for the two-person boat). With the boat on the right side, somebody has to cross back first,
+ * so at least 1 more than with L+1 people and the boat on the left side (2*L for the two-person boat).
+ * The bound is admissible.
+ */
+public class MonksAndCannibalsHeuristic implements Heuristic {
+    @Override
+    public int estimate(AbstractState state) {
+        MonksAndCannibalsState monks = (MonksAndCannibalsState) state;
+        int peopleOnLeft = monks.getMissionariesOnLeft() + monks.getCannibalsOnLeft();
+        if (peopleOnLeft == 0) {
+            return 0;
+        }
+        int capacity = monks.getBoatCapacity();
+        if (monks.isBoatOnRight()) {
+            return 1 + crossingsWithBoatOnLeft(peopleOnLeft + 1, capacity);
+        }
+        return crossingsWithBoatOnLeft(peopleOnLeft, capacity);
+    }
+
+    private static int crossingsWithBoatOnLeft(int peopleOnLeft, int capacity) {
+        if (peopleOnLeft <= capacity) {
+            return 1;
+        }
+        if (capacity == 1) {
+            // The boat cannot carry anybody over for good, only a lower bound of 1 crossing per person is kept.
+            return peopleOnLeft;
+        }
+        int roundTrips = (peopleOnLeft - 2) / (capacity - 1); // ceil((L-k)/(k-1))
+        return 2 * roundTrips + 1;
+    }
+}
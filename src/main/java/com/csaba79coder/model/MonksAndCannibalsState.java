@@ -1,5 +1,8 @@
 package com.csaba79coder.model;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Representation of the "3 monks and 3 cannibals" problem state space.
  * It can be generalized for any number of monks and cannibals.
@@ -23,11 +26,20 @@ package com.csaba79coder.model;
  * Op(1, 1): Move 1 monk and 1 cannibal to the other side.
  * Op(0, 1): Move 1 cannibal to the other side.
  * Op(0, 2): Move 2 cannibals to the other side.
+ * Generalization: the boat may carry k people (the boat capacity). The operators are then all loads (m, c)
+ * with 1 <= m + c <= k, where the cannibals do not outnumber the monks on the boat either (m = 0 or m >= c).
+ * The table of the loads is generated once per problem and shared by all of its states.
+ * For k = 2, the loads keep their original order: (0, 1), (0, 2), (1, 1), (1, 0), (2, 0).
  */
 
 public class MonksAndCannibalsState extends AbstractState {
+    // The (missionaries, cannibals) parameters of op for a two-person boat, in the order of the super operator.
+    private static final int[][] TWO_PERSON_LOADS = {{0, 1}, {0, 2}, {1, 1}, {1, 0}, {2, 0}};
+
     private final int missionaries; // Number of missionaries in total
     private final int cannibals; // Number of cannibals in total
+    private final int boatCapacity; // The number of people the boat can carry
+    private final int[][] loads; // The (missionaries, cannibals) parameters of op, in the order of the super operator
     private int missionariesOnLeft; // Number of missionaries on the left side
     private int cannibalsOnLeft; // Number of cannibals on the left side
     private char boat; // Boat location, 'B' for left, 'J' for right
@@ -35,8 +47,18 @@ public class MonksAndCannibalsState extends AbstractState {
     private int cannibalsOnRight; // Number of cannibals on the right side
 
     public MonksAndCannibalsState(int missionaries, int cannibals) {
+        this(missionaries, cannibals, 2);
+    }
+
+    public MonksAndCannibalsState(int missionaries, int cannibals, int boatCapacity) {
+        if (missionaries < 0 || cannibals < 0 || boatCapacity < 1) {
+            throw new IllegalArgumentException("Invalid problem: " + missionaries + " monks, " + cannibals +
+                    " cannibals, boat capacity " + boatCapacity);
+        }
         this.missionaries = missionaries;
         this.cannibals = cannibals;
+        this.boatCapacity = boatCapacity;
+        loads = boatCapacity == 2 ? TWO_PERSON_LOADS : generateLoads(boatCapacity);
         missionariesOnLeft = missionaries;
         cannibalsOnLeft = cannibals;
         boat = 'B';
@@ -44,6 +66,35 @@ public class MonksAndCannibalsState extends AbstractState {
         cannibalsOnRight = 0;
     }
 
+    // Lists the loads the boat can safely carry, ordered by the number of monks, then by the number of cannibals.
+    private static int[][] generateLoads(int boatCapacity) {
+        List<int[]> loads = new ArrayList<>();
+        for (int m = 0; m <= boatCapacity; m++) {
+            for (int c = 0; m + c <= boatCapacity; c++) {
+                if (m + c > 0 && (m == 0 || m >= c)) {
+                    loads.add(new int[]{m, c});
+                }
+            }
+        }
+        return loads.toArray(new int[0][]);
+    }
+
+    int getBoatCapacity() {
+        return boatCapacity;
+    }
+
+    int getMissionariesOnLeft() {
+        return missionariesOnLeft;
+    }
+
+    int getCannibalsOnLeft() {
+        return cannibalsOnLeft;
+    }
+
+    boolean isBoatOnRight() {
+        return boat == 'J';
+    }
+
     @Override
     public boolean isState() {
         return (missionariesOnLeft >= cannibalsOnLeft || missionariesOnLeft == 0) &&
@@ -56,7 +107,7 @@ public class MonksAndCannibalsState extends AbstractState {
     }
 
     private boolean preOp(int missionaries, int cannibals) {
-        if (missionaries + cannibals > 2 || missionaries + cannibals < 0 || missionaries < 0 || cannibals < 0) {
+        if (missionaries + cannibals > boatCapacity || missionaries + cannibals < 0 || missionaries < 0 || cannibals < 0) {
             return false;
         }
         if (boat == 'B') {
@@ -71,8 +122,20 @@ public class MonksAndCannibalsState extends AbstractState {
             return false;
         }
 
-        MonksAndCannibalsState backup = (MonksAndCannibalsState) clone();
+        cross(missionaries, cannibals);
+
+        if (isState()) {
+            return true;
+        }
+
+        // Crossing back with the same people reverts the state transition, no backup clone is needed.
+        cross(missionaries, cannibals);
 
+        return false;
+    }
+
+    // Moves the given people to the other side together with the boat.
+    private void cross(int missionaries, int cannibals) {
         if (boat == 'B') {
             missionariesOnLeft -= missionaries;
             cannibalsOnLeft -= cannibals;
@@ -86,35 +149,73 @@ public class MonksAndCannibalsState extends AbstractState {
             missionariesOnRight -= missionaries;
             cannibalsOnRight -= cannibals;
         }
+    }
 
-        if (isState()) {
-            return true;
+    // Checks the preconditions and the postconditions of op without performing the state transition.
+    @Override
+    boolean isApplicable(int i) {
+        if (i < 0 || i >= loads.length) {
+            return false;
+        }
+        int missionaries = loads[i][0];
+        int cannibals = loads[i][1];
+        if (!preOp(missionaries, cannibals)) {
+            return false;
         }
+        int direction = boat == 'B' ? 1 : -1;
+        int newMissionariesOnLeft = missionariesOnLeft - direction * missionaries;
+        int newCannibalsOnLeft = cannibalsOnLeft - direction * cannibals;
+        int newMissionariesOnRight = missionariesOnRight + direction * missionaries;
+        int newCannibalsOnRight = cannibalsOnRight + direction * cannibals;
+        return (newMissionariesOnLeft >= newCannibalsOnLeft || newMissionariesOnLeft == 0) &&
+                (newMissionariesOnRight >= newCannibalsOnRight || newMissionariesOnRight == 0);
+    }
+
+    @Override
+    boolean hasApplicabilityCheck() {
+        return true;
+    }
 
-        missionariesOnLeft = backup.missionariesOnLeft;
-        cannibalsOnLeft = backup.cannibalsOnLeft;
-        boat = backup.boat;
-        missionariesOnRight = backup.missionariesOnRight;
-        cannibalsOnRight = backup.cannibalsOnRight;
+    @Override
+    boolean isUndoable() {
+        return true;
+    }
 
-        return false;
+    @Override
+    void undoSuperOperator(int i) {
+        cross(loads[i][0], loads[i][1]);
     }
 
     @Override
     public int getOperatorCount() {
-        return 5;
+        return loads.length;
     }
 
     @Override
     public boolean isSuperOperator(int i) {
-        switch (i) {
-            case 0: return op(0, 1);
-            case 1: return op(0, 2);
-            case 2: return op(1, 1);
-            case 3: return op(1, 0);
-            case 4: return op(2, 0);
-            default: return false;
+        if (i < 0 || i >= loads.length) {
+            return false;
         }
+        return op(loads[i][0], loads[i][1]);
+    }
+
+    // Everybody is on the right side, together with the boat.
+    @Override
+    AbstractState getGoalState() {
+        MonksAndCannibalsState goal = (MonksAndCannibalsState) clone();
+        goal.missionariesOnLeft = 0;
+        goal.cannibalsOnLeft = 0;
+        goal.boat = 'J';
+        goal.missionariesOnRight = missionaries;
+        goal.cannibalsOnRight = cannibals;
+        return goal;
+    }
+
+    // The people who arrived with the boat can cross back with it,
+    // so the predecessor operators are the base operators.
+    @Override
+    boolean isPredecessorOperator(int i) {
+        return isSuperOperator(i);
     }
 
     @Override
@@ -122,15 +223,65 @@ public class MonksAndCannibalsState extends AbstractState {
         return missionariesOnLeft + "," + cannibalsOnLeft + "," + boat + "," + missionariesOnRight + "," + cannibalsOnRight;
     }
 
+    @Override
+    boolean isEncodable() {
+        return true;
+    }
+
+    // The right side is determined by the left side and the totals, so only the left side and the boat are encoded:
+    // the missionaries go into the upper 32 bits, the cannibals and the boat into the lower 32 bits.
+    @Override
+    long encode() {
+        return ((long) missionariesOnLeft << 32) | ((long) cannibalsOnLeft << 1) | (boat == 'B' ? 0 : 1);
+    }
+
+    @Override
+    void decode(long code) {
+        missionariesOnLeft = (int) (code >>> 32);
+        cannibalsOnLeft = (int) (code & 0xFFFFFFFFL) >>> 1;
+        boat = (code & 1) == 0 ? 'B' : 'J';
+        missionariesOnRight = missionaries - missionariesOnLeft;
+        cannibalsOnRight = cannibals - cannibalsOnLeft;
+    }
+
+    // Every combination of the people on the left side and the boat, including the ones where monks would be eaten.
+    @Override
+    int getStateSpaceSize() {
+        return Math.multiplyExact(Math.multiplyExact(missionaries + 1, cannibals + 1), 2);
+    }
+
+    @Override
+    int toIndex() {
+        return (missionariesOnLeft * (cannibals + 1) + cannibalsOnLeft) * 2 + (boat == 'B' ? 0 : 1);
+    }
+
+    @Override
+    void fromIndex(int index) {
+        boat = index % 2 == 0 ? 'B' : 'J';
+        missionariesOnLeft = index / 2 / (cannibals + 1);
+        cannibalsOnLeft = index / 2 % (cannibals + 1);
+        missionariesOnRight = missionaries - missionariesOnLeft;
+        cannibalsOnRight = cannibals - cannibalsOnLeft;
+    }
+
+    // The indexes of an instance fit into an int, so the totals are below 2^16, and the capacity is packed beside them.
+    @Override
+    long getInstanceKey() {
+        return ((long) missionaries << 48) | ((long) cannibals << 32) | boatCapacity;
+    }
+
+    // States of different problems are never equal.
     @Override
     public boolean equals(Object a) {
         MonksAndCannibalsState aa = (MonksAndCannibalsState) a;
         return aa.missionariesOnLeft == missionariesOnLeft && aa.cannibalsOnLeft == cannibalsOnLeft &&
-                aa.boat == boat;
+                aa.boat == boat && aa.missionaries == missionaries && aa.cannibals == cannibals &&
+                aa.boatCapacity == boatCapacity;
     }
 
+    // The dense index is unique within a problem, so the states of a problem never collide.
     @Override
     public int hashCode() {
-        return missionariesOnLeft + cannibalsOnLeft + boat;
+        return toIndex();
     }
 }
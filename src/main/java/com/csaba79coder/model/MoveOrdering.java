@@ -0,0 +1,66 @@
+package com.csaba79coder.model;
+
+import java.util.Arrays;
+
+/**
+ * A move ordering decides in which order a depth-first search (BackTrack, DepthFirstSearch) tries the operators of a state.
+ * By default, the searches try them in index order. Trying the promising operators first
+ * can make the first solution much faster to find, e.g., the knight moves towards the canteen.
+ * - fixed: a static order of the operators.
+ * - HeuristicMoveOrdering: the operators leading to the states with the smallest estimates come first.
+ * - HistoryMoveOrdering: the operators used by the solutions found before come first.
+ * The searches pass the same buffer for every node of a depth, so ordering does not need to allocate.
+ * Orderings with a buffer or with a history are not thread-safe, every search should have its own,
+ * or share it only with searches running one after another.
+ */
+@FunctionalInterface
+public interface MoveOrdering {
+    /**
+     * Writes the indexes of the operators of the state into order, the most promising first,
+     * and returns their number. The buffer has room for getOperatorCount() indexes, so an operator may be listed once.
+     * Operators that are not applicable may be listed, the search skips them (see Node.createChild);
+     * an ordering only checks them if the check is cheap (see AbstractState.hasApplicabilityCheck).
+     * The state must be left unchanged.
+     */
+    int order(AbstractState state, int[] order);
+
+    // Called by the search with the terminal node of the solution it has found.
+    default void solutionFound(Node terminalNode) {
+    }
+
+    // The operators listed are tried first, in the given order, then the others in index order.
+    // An operator listed more than once is tried at its first place. Operators the state does not have are ignored.
+    static MoveOrdering fixed(int... operators) {
+        for (int operator : operators) {
+            if (operator < 0) {
+                throw new IllegalArgumentException("An operator index cannot be negative: " + operator);
+            }
+        }
+        int[] priority = Arrays.stream(operators).distinct().toArray();
+        return (state, order) -> {
+            int operatorCount = state.getOperatorCount();
+            boolean check = state.hasApplicabilityCheck();
+            int count = 0;
+            for (int operator : priority) {
+                if (operator < operatorCount && (!check || state.isApplicable(operator))) {
+                    order[count++] = operator;
+                }
+            }
+            for (int i = 0; i < operatorCount; i++) {
+                if (!contains(priority, i) && (!check || state.isApplicable(i))) {
+                    order[count++] = i;
+                }
+            }
+            return count;
+        };
+    }
+
+    private static boolean contains(int[] operators, int operator) {
+        for (int i : operators) {
+            if (i == operator) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -8,6 +8,7 @@ public class Node {
     private final AbstractState state;
     private final int depth;
     private final Node parent; // Going up the parents leads to the start node.
+    private int operator = -1; // The index of the operator that created this node from its parent, -1 if it is not known.
 
     // Constructor:
     // Sets the internal state to the start state.
@@ -27,6 +28,21 @@ public class Node {
         this.parent = parent;
     }
 
+    // Creates a new child node with the given state.
+    // It is used when the path is not built by applying operators, e.g., when joining the paths of a bidirectional search.
+    Node(Node parent, AbstractState state) {
+        this.state = state;
+        depth = parent.getDepth() + 1;
+        this.parent = parent;
+    }
+
+    // Creates a new child node with the given state, which the given operator produced from the state of the parent.
+    // It is used when the nodes are restored from codes, e.g., from a snapshot of a search.
+    Node(Node parent, AbstractState state, int operator) {
+        this(parent, state);
+        this.operator = operator;
+    }
+
     public Node getParent() {
         return parent;
     }
@@ -43,8 +59,30 @@ public class Node {
         return state.getOperatorCount();
     }
 
+    // Applies the i-th operator to the state of this node, and remembers it as the operator that created this node.
     public boolean isSuperOperator(int i) {
-        return state.isSuperOperator(i);
+        if (!state.isSuperOperator(i)) {
+            return false;
+        }
+        operator = i;
+        return true;
+    }
+
+    // Returns the index of the operator that created this node from its parent,
+    // or -1 for the start node and for nodes that were not created by an operator (see SolutionPath.of).
+    public int getOperator() {
+        return operator;
+    }
+
+    public int getPredecessorOperatorCount() {
+        return state.getPredecessorOperatorCount();
+    }
+
+    // Creates a node with the state produced by the i-th predecessor operator, or returns null if it is not applicable.
+    // The parent of the new node is this node, so the parents of a backward search lead to its start, the goal node.
+    public Node createPredecessor(int i) {
+        Node newNode = new Node(this);
+        return newNode.state.isPredecessorOperator(i) ? newNode : null;
     }
 
     public AbstractState getState() {
@@ -73,18 +111,41 @@ public class Node {
         return state.toString();
     }
 
+    // Returns true if the i-th operator can be applied to the state of this node, without changing the state.
+    public boolean isApplicable(int i) {
+        return state.isApplicable(i);
+    }
+
+    // Creates the child node produced by the i-th operator, or returns null if the operator is not applicable.
+    // If the state can check applicability without applying the operator (see AbstractState.hasApplicabilityCheck),
+    // the state is only cloned if the operator is applicable.
+    public Node createChild(int i) {
+        if (state.hasApplicabilityCheck() && !state.isApplicable(i)) {
+            return null;
+        }
+        Node newNode = new Node(this);
+        return newNode.isSuperOperator(i) ? newNode : null;
+    }
+
     // Applies all applicable operators and returns the resulting new nodes.
     public List<Node> expand() {
         List<Node> newNodes = new ArrayList<>();
+        expand(newNodes);
+        return newNodes;
+    }
+
+    // Applies all applicable operators and puts the resulting new nodes into the given buffer.
+    // The buffer is cleared first, so the same list can be reused for every expansion.
+    // Returns the number of new nodes.
+    public int expand(List<Node> newNodes) {
+        newNodes.clear();
         for (int i = 0; i < getOperatorCount(); i++) {
-            // Create a new child node.
-            Node newNode = new Node(this);
-            // Try the i-th superoperator. Is it applicable?
-            if (newNode.isSuperOperator(i)) {
-                // If yes, add it to the new nodes.
+            // Try the i-th superoperator. A child node is only created if it is applicable.
+            Node newNode = createChild(i);
+            if (newNode != null) {
                 newNodes.add(newNode);
             }
         }
-        return newNodes;
+        return newNodes.size();
     }
 }
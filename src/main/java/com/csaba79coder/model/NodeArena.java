@@ -0,0 +1,107 @@
+package com.csaba79coder.model;
+
+import java.util.Arrays;
+
+/**
+ * A compact store of search nodes in parallel primitive arrays (struct of arrays).
+ * A node is referred to by an int handle, its index in the arrays, and costs 18 bytes:
+ * the handle of its parent, its depth, the index of the operator that created it, and the code of its state
+ * (see AbstractState.encode). There is no object per node, so the garbage collector has nothing to trace.
+ * The nodes are only turned into a chain of Node objects when a solution is found (see toNode).
+ * The handles are given out in increasing order, so the arena can also serve as the FIFO queue of a search.
+ * The operator indexes are stored in two bytes, so states with at most MAX_OPERATOR_COUNT operators can be stored.
+ */
+public class NodeArena {
+    public static final int NO_PARENT = -1;
+    public static final int MAX_OPERATOR_COUNT = Short.MAX_VALUE + 1;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] parents;
+    private int[] depths;
+    private short[] operators; // The operator applied to the parent, -1 for the start node.
+    private long[] states;
+    private int size;
+
+    public NodeArena() {
+        this(MIN_CAPACITY);
+    }
+
+    public NodeArena(int expectedSize) {
+        int capacity = Math.max(MIN_CAPACITY, expectedSize);
+        parents = new int[capacity];
+        depths = new int[capacity];
+        operators = new short[capacity];
+        states = new long[capacity];
+    }
+
+    // Adds the start node, and returns its handle.
+    public int addRoot(long state) {
+        return add(NO_PARENT, -1, state);
+    }
+
+    // Adds the node created from the parent by the operator, and returns its handle.
+    public int add(int parent, int operator, long state) {
+        if (operator >= MAX_OPERATOR_COUNT) {
+            throw new IllegalArgumentException("The operator index " + operator + " does not fit into the arena.");
+        }
+        if (size == states.length) {
+            grow();
+        }
+        parents[size] = parent;
+        depths[size] = parent == NO_PARENT ? 0 : depths[parent] + 1;
+        operators[size] = (short) operator;
+        states[size] = state;
+        return size++;
+    }
+
+    public int getParent(int handle) {
+        return parents[handle];
+    }
+
+    public int getDepth(int handle) {
+        return depths[handle];
+    }
+
+    public int getOperator(int handle) {
+        return operators[handle];
+    }
+
+    public long getState(int handle) {
+        return states[handle];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    // Builds the chain of nodes from the start node to the node of the handle.
+    // The start node has to be the node of the root of the arena.
+    // The operators are applied again, so every node of the chain is created the same way as by Node.createChild.
+    Node toNode(int handle, Node startNode) {
+        int[] path = new int[depths[handle]];
+        for (int current = handle; parents[current] != NO_PARENT; current = parents[current]) {
+            path[depths[current] - 1] = operators[current];
+        }
+        Node currentNode = startNode;
+        for (int operator : path) {
+            currentNode = currentNode.createChild(operator);
+            if (currentNode == null) {
+                throw new IllegalStateException("The operator " + operator + " of the arena is not applicable.");
+            }
+        }
+        return currentNode;
+    }
+
+    private void grow() {
+        int capacity = states.length + (states.length >> 1);
+        parents = Arrays.copyOf(parents, capacity);
+        depths = Arrays.copyOf(depths, capacity);
+        operators = Arrays.copyOf(operators, capacity);
+        states = Arrays.copyOf(states, capacity);
+    }
+}
@@ -0,0 +1,67 @@
+package com.csaba79coder.model;
+
+import java.util.Arrays;
+
+/**
+ * A FIFO queue of nodes backed by a growable ring buffer.
+ * It is used as the open list of breadth-first search: offer and poll cost O(1)
+ * and allocate nothing, except when the buffer has to grow.
+ */
+public class NodeQueue {
+    private Node[] elements; // The ring buffer. Its length is always a power of two.
+    private int head; // Index of the first node.
+    private int size;
+
+    public NodeQueue() {
+        this(16);
+    }
+
+    public NodeQueue(int initialCapacity) {
+        elements = new Node[Math.max(2, Integer.highestOneBit(Math.max(1, initialCapacity) - 1) << 1)];
+    }
+
+    // Adds the node to the end of the queue.
+    public void offer(Node node) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[(head + size) & (elements.length - 1)] = node;
+        size++;
+    }
+
+    // Removes and returns the first node, or returns null if the queue is empty.
+    public Node poll() {
+        if (size == 0) {
+            return null;
+        }
+        Node node = elements[head];
+        elements[head] = null;
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        return node;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(elements, null);
+        head = 0;
+        size = 0;
+    }
+
+    // Doubles the buffer and moves the nodes to its beginning.
+    private void grow() {
+        Node[] newElements = new Node[elements.length * 2];
+        int firstPart = elements.length - head;
+        System.arraycopy(elements, head, newElements, 0, firstPart);
+        System.arraycopy(elements, 0, newElements, firstPart, head);
+        elements = newElements;
+        head = 0;
+    }
+}
@@ -0,0 +1,192 @@
+package com.csaba79coder.model;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A parallel version of the (depth-limited, memory-based) Backtrack algorithm.
+ * The top levels of the search tree (up to the split depth) are split into fork/join tasks,
+ * and every task below the split depth runs the sequential Backtrack recursion on its own subtree.
+ * The idle workers of the ForkJoinPool steal the tasks of the busy ones, so all cores stay busy.
+ * When a solution is found, the other tasks are cancelled:
+ * - By default, every task stops, and the first solution found by any worker is returned.
+ * - In deterministic mode, only the tasks to the right of the solution stop (in operator order),
+ *   so the result is the same solution the sequential Backtrack would return.
+ * Every task is identified by a key built from the operator indices leading to it,
+ * so "to the right" simply means a larger key.
+ * The transposition table of the sequential Backtrack is not supported.
+ */
+public class ParallelBackTrack extends GraphSearch {
+    private static final int DEFAULT_SPLIT_DEPTH = 4;
+
+    private final int limit;
+    private final boolean useMemory;
+    private final boolean deterministic;
+    private final int splitDepth;
+    private final ForkJoinPool pool;
+    private final int radix; // Operator index + 1 is a digit of the task keys, 0 stands for the node itself.
+    private final long[] digitWeights; // digitWeights[level] is the place value of the operator applied at that level.
+    private final AtomicReference<Solution> solution = new AtomicReference<>();
+
+    // A terminal node together with the key of the task that found it.
+    private record Solution(long key, Node node) {
+    }
+
+    public ParallelBackTrack(Node startNode, int limit, boolean useMemory, boolean deterministic, int splitDepth,
+                             ForkJoinPool pool) {
+        super(startNode);
+        if (splitDepth < 0) {
+            throw new IllegalArgumentException("The split depth cannot be negative.");
+        }
+        this.limit = limit;
+        this.useMemory = useMemory;
+        this.deterministic = deterministic;
+        this.splitDepth = splitDepth;
+        this.pool = pool;
+        // The operator count of the start state is used for every state.
+        radix = startNode.getOperatorCount() + 1;
+        digitWeights = new long[splitDepth];
+        long weight = 1;
+        for (int level = splitDepth - 1; level >= 0; level--) {
+            digitWeights[level] = weight;
+            if (level > 0 && weight > Long.MAX_VALUE / radix / radix) {
+                throw new IllegalArgumentException("The split depth is too large for " + (radix - 1) + " operators.");
+            }
+            weight *= radix;
+        }
+    }
+
+    public ParallelBackTrack(Node startNode, int limit, boolean useMemory, boolean deterministic) {
+        this(startNode, limit, useMemory, deterministic, DEFAULT_SPLIT_DEPTH, ForkJoinPool.commonPool());
+    }
+
+    public ParallelBackTrack(Node startNode, int limit, boolean useMemory) {
+        this(startNode, limit, useMemory, false);
+    }
+
+    @Override
+    public Node search() {
+        solution.set(null);
+        pool.invoke(new SearchTask(getStartNode(), 0, 0, Set.of()));
+        Solution found = solution.get();
+        return found == null ? null : found.node();
+    }
+
+    // Returns true if the task with the given key cannot improve on the solution found so far.
+    private boolean isSuperseded(long key) {
+        Solution found = solution.get();
+        return found != null && (!deterministic || found.key() <= key);
+    }
+
+    // Keeps the solution with the smallest key in deterministic mode, the first one otherwise.
+    private void offer(long key, Node terminalNode) {
+        Solution candidate = new Solution(key, terminalNode);
+        while (true) {
+            Solution found = solution.get();
+            if (found != null && (!deterministic || found.key() <= key)) {
+                return;
+            }
+            if (solution.compareAndSet(found, candidate)) {
+                return;
+            }
+        }
+    }
+
+    // Tasks are never serialized, so the nodes are transient.
+    private class SearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Node node;
+        private final int level; // The depth of the node relative to the start node.
+        private final long key;
+        private final transient Set<Node> ancestors; // States on the path above the node, only used by the memory-based version.
+
+        SearchTask(Node node, int level, long key, Set<Node> ancestors) {
+            this.node = node;
+            this.level = level;
+            this.key = key;
+            this.ancestors = ancestors;
+        }
+
+        @Override
+        protected void compute() {
+            if (level >= splitDepth) {
+                Set<Node> path = useMemory ? new HashSet<>(ancestors) : null;
+                Node terminalNode = search(node, path);
+                if (terminalNode != null) {
+                    offer(key, terminalNode);
+                }
+                return;
+            }
+            if (isSuperseded(key) || isCutOff(node)) {
+                return;
+            }
+            if (useMemory && ancestors.contains(node)) {
+                fireDuplicateRejected(node);
+                return;
+            }
+            if (node.isTerminalNode()) {
+                offer(key, node);
+                return;
+            }
+            Set<Node> childAncestors = ancestors;
+            if (useMemory) {
+                childAncestors = new HashSet<>(ancestors);
+                childAncestors.add(node);
+            }
+            List<SearchTask> subtasks = new ArrayList<>();
+            fireNodeExpanded(node);
+            for (int i = 0; i < node.getOperatorCount(); i++) {
+                Node childNode = node.createChild(i);
+                if (childNode != null) {
+                    fireNodeGenerated(childNode);
+                    subtasks.add(new SearchTask(childNode, level + 1, key + (i + 1) * digitWeights[level], childAncestors));
+                }
+            }
+            invokeAll(subtasks);
+        }
+
+        // The sequential Backtrack recursion. The subtree is explored in operator order,
+        // so the first terminal node found is the leftmost one in this subtree.
+        private Node search(Node currentNode, Set<Node> path) {
+            if (isSuperseded(key) || isCutOff(currentNode)) {
+                return null;
+            }
+            if (useMemory && !path.add(currentNode)) {
+                fireDuplicateRejected(currentNode);
+                return null;
+            }
+            try {
+                if (currentNode.isTerminalNode()) {
+                    return currentNode;
+                }
+                fireNodeExpanded(currentNode);
+                for (int i = 0; i < currentNode.getOperatorCount(); i++) {
+                    Node childNode = currentNode.createChild(i);
+                    if (childNode != null) {
+                        fireNodeGenerated(childNode);
+                        Node terminalNode = search(childNode, path);
+                        if (terminalNode != null) {
+                            return terminalNode;
+                        }
+                    }
+                }
+                fireBacktracked(currentNode);
+                return null;
+            } finally {
+                if (useMemory) {
+                    path.remove(currentNode);
+                }
+            }
+        }
+
+        private boolean isCutOff(Node currentNode) {
+            return limit > 0 && currentNode.getDepth() >= limit;
+        }
+    }
+}
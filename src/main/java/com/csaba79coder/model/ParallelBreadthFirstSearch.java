@@ -0,0 +1,98 @@
+package com.csaba79coder.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A class implementing level-synchronous parallel breadth-first search.
+ * Each layer of the frontier is cut into chunks, and the chunks are expanded by the workers of a ForkJoinPool.
+ * Duplicates are detected with a shared ConcurrentVisitedSet.
+ * Every worker collects the new nodes of its chunk in its own buffer, and the buffers are merged into
+ * the next layer when the whole layer is done, so the workers do not contend on a shared queue.
+ * All terminal nodes found in a layer are equally deep, so the returned solution is a shortest one.
+ */
+public class ParallelBreadthFirstSearch extends GraphSearch {
+    private static final int MIN_CHUNK_SIZE = 64;
+
+    private final ForkJoinPool pool;
+
+    public ParallelBreadthFirstSearch(Node startNode, ForkJoinPool pool) {
+        super(startNode);
+        this.pool = pool;
+    }
+
+    public ParallelBreadthFirstSearch(Node startNode) {
+        this(startNode, ForkJoinPool.commonPool());
+    }
+
+    @Override
+    public Node search() {
+        if (getStartNode().isTerminalNode()) {
+            return getStartNode();
+        }
+        VisitedSet visited = new ConcurrentVisitedSet(); // Set of open and closed nodes.
+        AtomicReference<Node> terminalNode = new AtomicReference<>();
+        visited.add(getStartNode());
+        List<Node> layer = List.of(getStartNode());
+        while (!layer.isEmpty()) {
+            List<Callable<List<Node>>> chunks = new ArrayList<>();
+            int chunkSize = Math.max(MIN_CHUNK_SIZE, layer.size() / (4 * pool.getParallelism()) + 1);
+            for (int from = 0; from < layer.size(); from += chunkSize) {
+                List<Node> chunk = layer.subList(from, Math.min(layer.size(), from + chunkSize));
+                chunks.add(() -> expand(chunk, visited, terminalNode));
+            }
+            List<Node> nextLayer = new ArrayList<>();
+            for (Future<List<Node>> newNodes : pool.invokeAll(chunks)) {
+                nextLayer.addAll(join(newNodes));
+            }
+            fireFrontierSizeChanged(nextLayer.size());
+            if (terminalNode.get() != null) {
+                return terminalNode.get();
+            }
+            layer = nextLayer;
+        }
+        return null;
+    }
+
+    // Expands the nodes of a chunk and returns the new nodes, unless another worker has already found a solution.
+    private List<Node> expand(List<Node> chunk, VisitedSet visited, AtomicReference<Node> terminalNode) {
+        List<Node> newNodes = new ArrayList<>();
+        List<Node> children = new ArrayList<>();
+        for (Node currentNode : chunk) {
+            if (terminalNode.get() != null) {
+                break;
+            }
+            currentNode.expand(children);
+            fireNodeExpanded(currentNode);
+            for (Node childNode : children) {
+                fireNodeGenerated(childNode);
+                if (childNode.isTerminalNode()) {
+                    terminalNode.compareAndSet(null, childNode);
+                    break;
+                }
+                if (visited.add(childNode)) {
+                    newNodes.add(childNode);
+                } else {
+                    fireDuplicateRejected(childNode);
+                }
+            }
+        }
+        return newNodes;
+    }
+
+    private static List<Node> join(Future<List<Node>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The search was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A worker of the search failed.", e.getCause());
+        }
+    }
+}
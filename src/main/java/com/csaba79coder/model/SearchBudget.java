@@ -0,0 +1,78 @@
+package com.csaba79coder.model;
+
+import java.time.Duration;
+
+/**
+ * The limits of a search run by GraphSearch.search(SearchBudget, CancellationToken):
+ * a time limit, a limit on the number of expanded nodes, or both.
+ * It also sets how often the progress of the search is reported (see SearchListener.progress).
+ * A budget is immutable, the with methods return a modified copy.
+ */
+public final class SearchBudget {
+    public static final SearchBudget UNLIMITED = new SearchBudget(Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private final long timeLimitNanos; // Long.MAX_VALUE if the time is not limited.
+    private final long maxExpandedNodes; // Long.MAX_VALUE if the number of nodes is not limited.
+    private final long progressIntervalNanos; // Long.MAX_VALUE if the progress is not reported.
+
+    private SearchBudget(long timeLimitNanos, long maxExpandedNodes, long progressIntervalNanos) {
+        this.timeLimitNanos = timeLimitNanos;
+        this.maxExpandedNodes = maxExpandedNodes;
+        this.progressIntervalNanos = progressIntervalNanos;
+    }
+
+    public static SearchBudget ofTime(Duration timeLimit) {
+        return UNLIMITED.withTime(timeLimit);
+    }
+
+    // At most maxExpandedNodes nodes are expanded, the same number as counted by SearchStatistics.
+    // With 0, not even the start node is expanded.
+    public static SearchBudget ofNodes(long maxExpandedNodes) {
+        return UNLIMITED.withNodes(maxExpandedNodes);
+    }
+
+    public SearchBudget withTime(Duration timeLimit) {
+        return new SearchBudget(positiveNanos(timeLimit), maxExpandedNodes, progressIntervalNanos);
+    }
+
+    public SearchBudget withNodes(long maxExpandedNodes) {
+        if (maxExpandedNodes < 0) {
+            throw new IllegalArgumentException("The node budget must not be negative.");
+        }
+        return new SearchBudget(timeLimitNanos, maxExpandedNodes, progressIntervalNanos);
+    }
+
+    // The listener of the search gets a progress call after every interval.
+    public SearchBudget withProgressInterval(Duration progressInterval) {
+        return new SearchBudget(timeLimitNanos, maxExpandedNodes, positiveNanos(progressInterval));
+    }
+
+    long getTimeLimitNanos() {
+        return timeLimitNanos;
+    }
+
+    long getMaxExpandedNodes() {
+        return maxExpandedNodes;
+    }
+
+    long getProgressIntervalNanos() {
+        return progressIntervalNanos;
+    }
+
+    private static long positiveNanos(Duration duration) {
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("The duration must be positive: " + duration);
+        }
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SearchBudget[time=" + (timeLimitNanos == Long.MAX_VALUE ? "unlimited" : Duration.ofNanos(timeLimitNanos)) +
+                ", nodes=" + (maxExpandedNodes == Long.MAX_VALUE ? "unlimited" : maxExpandedNodes) + "]";
+    }
+}
@@ -0,0 +1,59 @@
+package com.csaba79coder.model;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Custom JDK Flight Recorder events of the graph searches, emitted by JfrSearchListener.
+ */
+final class SearchEvents {
+    private SearchEvents() {
+    }
+
+    // One event per expanded node. There can be millions of them, so it is disabled by default,
+    // enable it in the JFR settings (com.csaba79coder.NodeExpanded#enabled=true) when needed.
+    @Name("com.csaba79coder.NodeExpanded")
+    @Label("Node Expanded")
+    @Category({"State Space Search"})
+    @Description("A node was expanded by a graph search.")
+    @Enabled(false)
+    @StackTrace(false)
+    static class NodeExpandedEvent extends Event {
+        @Label("Search")
+        String search;
+
+        @Label("Depth")
+        int depth;
+
+        @Label("State")
+        String state;
+    }
+
+    // One event per search, its duration is the wall time of the search.
+    @Name("com.csaba79coder.Search")
+    @Label("Search")
+    @Category({"State Space Search"})
+    @Description("A graph search from start to finish, with its solution.")
+    @StackTrace(false)
+    static class SearchEvent extends Event {
+        @Label("Search")
+        String search;
+
+        @Label("Start State")
+        String startState;
+
+        @Label("Solution Found")
+        boolean solutionFound;
+
+        @Label("Solution Depth")
+        int solutionDepth;
+
+        @Label("Nodes Expanded")
+        long nodesExpanded;
+    }
+}
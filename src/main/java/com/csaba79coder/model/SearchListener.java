@@ -0,0 +1,48 @@
+package com.csaba79coder.model;
+
+/**
+ * Receives notifications about the progress of a graph search (see GraphSearch.search(SearchListener)).
+ * Every method has an empty default implementation, so a listener only overrides what it needs.
+ * Parallel searches call the listener from several threads, so it has to be thread-safe.
+ * The methods are called on the hot path of the search, so they should return quickly.
+ * Searches that do not keep nodes in memory (e.g., ExternalBreadthFirstSearch, ArenaBreadthFirstSearch) pass null
+ * for the generated, the expanded and the rejected nodes, so only the counts are reported for them.
+ */
+public interface SearchListener {
+    // The listener used when nothing is attached. The searches skip the notifications for it.
+    SearchListener NONE = new SearchListener() {
+    };
+
+    // Called once, before the search starts.
+    default void searchStarted(Node startNode) {
+    }
+
+    // Called for every new node created by applying an operator.
+    default void nodeGenerated(Node node) {
+    }
+
+    // Called when the children of a node are generated.
+    default void nodeExpanded(Node node) {
+    }
+
+    // Called when a generated node is dropped, because its state has already been reached (or is on the current path).
+    default void duplicateRejected(Node node) {
+    }
+
+    // Called when the number of open nodes changes considerably, e.g., after an expansion or a layer.
+    default void frontierSizeChanged(int size) {
+    }
+
+    // Called when a backtracking search steps back from a node without finding a solution below it.
+    default void backtracked(Node node) {
+    }
+
+    // Called periodically by searches run with a SearchBudget that has a progress interval,
+    // with the number of nodes expanded so far and the best node so far (see SearchResult.bestNode).
+    default void progress(long nodesExpanded, Node bestNode) {
+    }
+
+    // Called once, after the search has finished. The terminal node is null if there is no solution.
+    default void searchFinished(Node terminalNode) {
+    }
+}
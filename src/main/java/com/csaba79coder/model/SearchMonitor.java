@@ -0,0 +1,151 @@
+package com.csaba79coder.model;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Enforces a SearchBudget and a CancellationToken. It is attached to a search as its listener,
+ * so it is called from the notification hooks every search already has (see GraphSearch.fireNodeExpanded),
+ * and the events are passed on to the listener of the caller.
+ * The check is a counter increment and a volatile read per expanded node; the clock is read only every
+ * CLOCK_CHECK_INTERVAL nodes, and at every frontierSizeChanged (searches that expand whole layers at once).
+ * When a limit is reached, it throws a Stop, which unwinds the search up to GraphSearch.search(SearchBudget, ...).
+ * It also keeps the best node expanded so far, as the anytime result.
+ */
+class SearchMonitor implements SearchListener {
+    private static final int CLOCK_CHECK_INTERVAL = 64;
+
+    private final SearchBudget budget;
+    private final CancellationToken token;
+    private final SearchListener listener;
+    private final Heuristic heuristic; // Null if the best node is chosen by depth.
+    private final long startNanos;
+    private final AtomicLong nodesExpanded = new AtomicLong();
+    private volatile long nextProgressNanos;
+    private volatile Node bestNode;
+    private volatile long bestScore = Long.MAX_VALUE; // The lower, the closer to the goal.
+    private SearchResult.Status stopReason;
+
+    SearchMonitor(SearchBudget budget, CancellationToken token, SearchListener listener, Heuristic heuristic) {
+        this.budget = budget;
+        this.token = token;
+        this.listener = listener;
+        this.heuristic = heuristic == Heuristic.ZERO ? null : heuristic;
+        startNanos = System.nanoTime();
+        nextProgressNanos = startNanos + budget.getProgressIntervalNanos();
+    }
+
+    // Thrown to unwind the search when it has to stop. It is only caught by GraphSearch, so no stack trace is needed.
+    static final class Stop extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Stop() {
+            super("The search was stopped.", null, false, false);
+        }
+    }
+
+    @Override
+    public void searchStarted(Node startNode) {
+        listener.searchStarted(startNode);
+        // The limit is checked after every expansion, so a budget of no nodes has to stop the search here.
+        if (budget.getMaxExpandedNodes() == 0) {
+            stop(SearchResult.Status.BUDGET_EXHAUSTED);
+        }
+    }
+
+    @Override
+    public void nodeGenerated(Node node) {
+        listener.nodeGenerated(node);
+    }
+
+    @Override
+    public void nodeExpanded(Node node) {
+        long count = nodesExpanded.incrementAndGet();
+        if (node != null) {
+            offerBestNode(node);
+        }
+        listener.nodeExpanded(node);
+        if (token.isCancelled()) {
+            stop(SearchResult.Status.CANCELLED);
+        }
+        // The expansion is complete, so the search stops after exactly the number of nodes of the budget.
+        if (count >= budget.getMaxExpandedNodes()) {
+            stop(SearchResult.Status.BUDGET_EXHAUSTED);
+        }
+        if (count % CLOCK_CHECK_INTERVAL == 0) {
+            checkClock();
+        }
+    }
+
+    @Override
+    public void duplicateRejected(Node node) {
+        listener.duplicateRejected(node);
+    }
+
+    @Override
+    public void frontierSizeChanged(int size) {
+        listener.frontierSizeChanged(size);
+        if (token.isCancelled()) {
+            stop(SearchResult.Status.CANCELLED);
+        }
+        checkClock();
+    }
+
+    @Override
+    public void backtracked(Node node) {
+        listener.backtracked(node);
+    }
+
+    @Override
+    public void searchFinished(Node terminalNode) {
+        listener.searchFinished(terminalNode);
+    }
+
+    private void checkClock() {
+        long now = System.nanoTime();
+        if (now - startNanos >= budget.getTimeLimitNanos()) {
+            stop(SearchResult.Status.BUDGET_EXHAUSTED);
+        }
+        if (budget.getProgressIntervalNanos() != Long.MAX_VALUE && now - nextProgressNanos >= 0) {
+            nextProgressNanos = now + budget.getProgressIntervalNanos();
+            listener.progress(nodesExpanded.get(), bestNode);
+        }
+    }
+
+    private void stop(SearchResult.Status reason) {
+        synchronized (this) {
+            if (stopReason == null) {
+                stopReason = reason;
+            }
+        }
+        throw new Stop();
+    }
+
+    // The heuristic decides which node is closer to the goal. Without a heuristic, the deeper node is.
+    // Ties keep the earlier node.
+    private void offerBestNode(Node node) {
+        long score = heuristic != null ? heuristic.estimate(node.getState()) : -node.getDepth();
+        if (score < bestScore) {
+            synchronized (this) {
+                if (score < bestScore) {
+                    bestScore = score;
+                    bestNode = node;
+                }
+            }
+        }
+    }
+
+    // Builds the result after the search returned or was stopped.
+    synchronized SearchResult result(Node terminalNode, boolean stopped) {
+        SearchResult.Status status;
+        if (terminalNode != null) {
+            status = SearchResult.Status.SOLVED;
+        } else if (stopped) {
+            status = stopReason;
+        } else {
+            status = SearchResult.Status.NO_SOLUTION;
+        }
+        return new SearchResult(status, terminalNode, terminalNode != null ? terminalNode : bestNode,
+                nodesExpanded.get(), Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+}
@@ -0,0 +1,23 @@
+package com.csaba79coder.model;
+
+import java.time.Duration;
+
+/**
+ * The result of a search run with a budget (see GraphSearch.search(SearchBudget, CancellationToken)).
+ * The terminal node is null unless the search found a solution.
+ * The best node is the anytime result: the solution if there is one, otherwise the expanded node
+ * that got closest to the goal (by the heuristic of the search, or by depth if it has none).
+ * Following its parents gives the best partial path. It may be null, e.g., if no node was expanded.
+ */
+public record SearchResult(Status status, Node terminalNode, Node bestNode, long nodesExpanded, Duration elapsed) {
+    public enum Status {
+        SOLVED,
+        NO_SOLUTION,
+        BUDGET_EXHAUSTED, // The time or node limit was reached.
+        CANCELLED
+    }
+
+    public boolean isSolved() {
+        return status == Status.SOLVED;
+    }
+}
@@ -0,0 +1,123 @@
+package com.csaba79coder.model;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A search listener that counts what the search does.
+ * The counters are thread-safe, so the same instance can be used with the parallel searches.
+ * Use a new instance for every search, or call reset in between.
+ */
+public class SearchStatistics implements SearchListener {
+    private final LongAdder nodesGenerated = new LongAdder();
+    private final LongAdder nodesExpanded = new LongAdder();
+    private final LongAdder duplicatesRejected = new LongAdder();
+    private final LongAdder backtracks = new LongAdder();
+    private final LongAccumulator maxFrontierSize = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+    private volatile long startNanos;
+    private volatile long wallTimeNanos;
+    private volatile int solutionDepth = -1;
+
+    @Override
+    public void searchStarted(Node startNode) {
+        startNanos = System.nanoTime();
+        wallTimeNanos = 0;
+        solutionDepth = -1;
+    }
+
+    @Override
+    public void nodeGenerated(Node node) {
+        nodesGenerated.increment();
+        // Searches that do not keep nodes pass null, then only the depth of the solution is known.
+        if (node != null) {
+            maxDepth.accumulate(node.getDepth());
+        }
+    }
+
+    @Override
+    public void nodeExpanded(Node node) {
+        nodesExpanded.increment();
+    }
+
+    @Override
+    public void duplicateRejected(Node node) {
+        duplicatesRejected.increment();
+    }
+
+    @Override
+    public void frontierSizeChanged(int size) {
+        maxFrontierSize.accumulate(size);
+    }
+
+    @Override
+    public void backtracked(Node node) {
+        backtracks.increment();
+    }
+
+    @Override
+    public void searchFinished(Node terminalNode) {
+        wallTimeNanos = System.nanoTime() - startNanos;
+        solutionDepth = terminalNode == null ? -1 : terminalNode.getDepth();
+        if (terminalNode != null) {
+            maxDepth.accumulate(terminalNode.getDepth());
+        }
+    }
+
+    public long getNodesGenerated() {
+        return nodesGenerated.sum();
+    }
+
+    public long getNodesExpanded() {
+        return nodesExpanded.sum();
+    }
+
+    public long getDuplicatesRejected() {
+        return duplicatesRejected.sum();
+    }
+
+    public long getBacktracks() {
+        return backtracks.sum();
+    }
+
+    public long getMaxFrontierSize() {
+        return maxFrontierSize.get();
+    }
+
+    public long getMaxDepth() {
+        return maxDepth.get();
+    }
+
+    // The wall time of the last finished search in nanoseconds.
+    public long getWallTimeNanos() {
+        return wallTimeNanos;
+    }
+
+    // The number of operators in the solution of the last finished search, or -1 if there was no solution.
+    public int getSolutionDepth() {
+        return solutionDepth;
+    }
+
+    public void reset() {
+        nodesGenerated.reset();
+        nodesExpanded.reset();
+        duplicatesRejected.reset();
+        backtracks.reset();
+        maxFrontierSize.reset();
+        maxDepth.reset();
+        wallTimeNanos = 0;
+        solutionDepth = -1;
+    }
+
+    @Override
+    public String toString() {
+        return "generated=" + getNodesGenerated() +
+                ", expanded=" + getNodesExpanded() +
+                ", duplicates=" + getDuplicatesRejected() +
+                ", backtracks=" + getBacktracks() +
+                ", maxFrontier=" + getMaxFrontierSize() +
+                ", maxDepth=" + getMaxDepth() +
+                ", solutionDepth=" + getSolutionDepth() +
+                ", wallTime=" + wallTimeNanos / 1_000_000 + " ms";
+    }
+}
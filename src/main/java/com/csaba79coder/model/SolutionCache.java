@@ -0,0 +1,172 @@
+package com.csaba79coder.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of optimal solutions, shared by the searches answering many queries on the same problem.
+ * The key of an entry is a state. Since the states of a problem include its parameters
+ * (e.g., the size of the knight's board, or the number of monks, cannibals and the capacity of the boat),
+ * the same cache can hold the solutions of different problem instances.
+ * The class of the state is part of the key, so the states of different problems never match each other,
+ * even if they have the same hash code (the equals methods of the states expect a state of their own class).
+ * For every state of an optimal path, the remaining distance and the next operator are stored,
+ * because every suffix of an optimal path is an optimal path itself.
+ * So a later query starting from any state of a cached path is answered without a search,
+ * by following the next operators from entry to entry.
+ * When the cache is full, the least recently used entry is evicted.
+ * Only optimal paths may be put into the cache, e.g., the solutions of a BreadthFirstSearch,
+ * or of an AStarSearch with an admissible heuristic; otherwise the answers of the cache are not optimal either.
+ * The methods are synchronized, so the cache can be shared by concurrent searches (see BatchSolver).
+ */
+public class SolutionCache {
+    // The distance from the state to a terminal state, and the index of the operator leading towards it
+    // (-1 for a terminal state).
+    private record Entry(int distance, int operator) {
+    }
+
+    // A state that is only equal to the states of the same class.
+    private static final class Key {
+        private final AbstractState state;
+
+        Key(AbstractState state) {
+            this.state = state;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && state.getClass() == key.state.getClass() && state.equals(key.state);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * state.getClass().hashCode() + state.hashCode();
+        }
+    }
+
+    private final int maxSize;
+    private final Map<Key, Entry> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    // maxSize is the number of states kept in the cache (not the number of solutions).
+    public SolutionCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The size of the cache must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > SolutionCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached optimal solution from the state, or null if it is not known.
+     * The path is rebuilt by following the next operators. If a state of the path has already been evicted,
+     * the path is incomplete, so it is a miss, and the entries of the path are refreshed by the next put.
+     */
+    public synchronized SolutionPath get(AbstractState startState) {
+        Entry entry = entries.get(new Key(startState));
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        int[] operators = new int[entry.distance()];
+        AbstractState state = (AbstractState) startState.clone();
+        for (int step = 0; step < operators.length; step++) {
+            operators[step] = entry.operator();
+            if (!state.isSuperOperator(entry.operator())) {
+                throw new IllegalStateException("The operator " + entry.operator() + " is not applicable to " + state);
+            }
+            entry = entries.get(new Key(state));
+            if (entry == null || entry.distance() != operators.length - step - 1) {
+                misses++;
+                return null;
+            }
+        }
+        hits++;
+        return new SolutionPath(startState, operators);
+    }
+
+    /**
+     * Stores every state of the optimal path with its remaining distance and next operator.
+     * The terminal state is stored with distance 0. An entry with a shorter distance is not overwritten.
+     */
+    public synchronized void put(SolutionPath path) {
+        int step = 0;
+        for (AbstractState state : path) {
+            int distance = path.length() - step;
+            Key key = new Key(state);
+            Entry entry = entries.get(key);
+            if (entry == null || entry.distance() > distance) {
+                // The iterator returns a new instance for every state, so it can be kept in a key.
+                entries.put(key, new Entry(distance, distance == 0 ? -1 : path.getOperator(step)));
+            }
+            step++;
+        }
+    }
+
+    /**
+     * Returns the solution from the start node of the search: the cached one if there is one,
+     * otherwise the one found by the search, which is then put into the cache.
+     * The search must find optimal solutions. Returns null if there is no solution (this is not cached).
+     */
+    public SolutionPath solve(GraphSearch search) {
+        SolutionPath path = get(search.getStartNode().getState());
+        if (path != null) {
+            return path;
+        }
+        Node terminalNode = search.search();
+        if (terminalNode == null) {
+            return null;
+        }
+        path = SolutionPath.of(terminalNode);
+        put(path);
+        return path;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    // The ratio of hits to all lookups, 0 if there was no lookup.
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    // Removes the entries, the counters are kept.
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SolutionCache[size=" + entries.size() + "/" + maxSize + ", hits=" + hits + ", misses=" + misses
+                + ", evictions=" + evictions + "]";
+    }
+}
@@ -0,0 +1,214 @@
+package com.csaba79coder.model;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A compact representation of a solution: the start state and the indexes of the operators applied to it,
+ * one byte each if every index is below 256 (this is the usual case), otherwise an int each.
+ * The intermediate states are not stored, they are replayed from the start state when they are needed,
+ * so a long solution can be kept, cached or sent without keeping every state of the path alive.
+ * The iterator (and states()) returns the states of the path one by one, from the start state to the terminal state.
+ * A SolutionPath is immutable.
+ */
+public final class SolutionPath implements Iterable<AbstractState> {
+    private static final int MAX_BYTE_OPERATOR = 0xFF;
+
+    private final AbstractState startState;
+    private final byte[] operators; // The operators as unsigned bytes, null if an index does not fit.
+    private final int[] wideOperators; // The operators if they do not fit into bytes, otherwise null.
+
+    // The operators are given as unsigned bytes.
+    public SolutionPath(AbstractState startState, byte[] operators) {
+        this.startState = (AbstractState) startState.clone();
+        this.operators = operators.clone();
+        this.wideOperators = null;
+    }
+
+    public SolutionPath(AbstractState startState, int[] operators) {
+        this.startState = (AbstractState) startState.clone();
+        int maxOperator = 0;
+        for (int operator : operators) {
+            if (operator < 0) {
+                throw new IllegalArgumentException("An operator index cannot be negative: " + operator);
+            }
+            maxOperator = Math.max(maxOperator, operator);
+        }
+        if (maxOperator <= MAX_BYTE_OPERATOR) {
+            this.operators = new byte[operators.length];
+            for (int step = 0; step < operators.length; step++) {
+                this.operators[step] = (byte) operators[step];
+            }
+            this.wideOperators = null;
+        } else {
+            this.operators = null;
+            this.wideOperators = operators.clone();
+        }
+    }
+
+    // Creates the path from the start node to the terminal node by following the parent references.
+    // The operator of a node is taken from the node (see Node.getOperator). If it is not known,
+    // e.g., because the node was joined to the path by a bidirectional search, it is found by trying every operator.
+    public static SolutionPath of(Node terminalNode) {
+        int[] operators = new int[terminalNode.getDepth()];
+        Node currentNode = terminalNode;
+        for (int step = operators.length - 1; step >= 0; step--) {
+            Node parent = currentNode.getParent();
+            int operator = currentNode.getOperator();
+            if (operator < 0) {
+                operator = findOperator(parent.getState(), currentNode.getState());
+            }
+            operators[step] = operator;
+            currentNode = parent;
+        }
+        return new SolutionPath(currentNode.getState(), operators);
+    }
+
+    // Returns the index of the operator leading from one state to the other.
+    private static int findOperator(AbstractState from, AbstractState to) {
+        for (int i = 0; i < from.getOperatorCount(); i++) {
+            if (from.hasApplicabilityCheck() && !from.isApplicable(i)) {
+                continue;
+            }
+            AbstractState state = (AbstractState) from.clone();
+            if (state.isSuperOperator(i) && state.equals(to)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No operator leads from " + from + " to " + to);
+    }
+
+    // Returns the number of operators, i.e., the length of the solution.
+    public int length() {
+        return wideOperators != null ? wideOperators.length : operators.length;
+    }
+
+    // Returns the index of the operator applied in the given step, starting from 0.
+    public int getOperator(int step) {
+        return wideOperators != null ? wideOperators[step] : operators[step] & MAX_BYTE_OPERATOR;
+    }
+
+    public int[] getOperators() {
+        int[] result = new int[length()];
+        for (int step = 0; step < result.length; step++) {
+            result[step] = getOperator(step);
+        }
+        return result;
+    }
+
+    public AbstractState getStartState() {
+        return (AbstractState) startState.clone();
+    }
+
+    // Replays the whole path, and returns the terminal state.
+    public AbstractState getTerminalState() {
+        AbstractState state = getStartState();
+        for (int step = 0; step < length(); step++) {
+            apply(state, getOperator(step));
+        }
+        return state;
+    }
+
+    // Builds the chain of nodes of the path, e.g., for GraphSearch.printSolution.
+    public Node toNode() {
+        Node currentNode = new Node(getStartState());
+        for (int step = 0; step < length(); step++) {
+            int operator = getOperator(step);
+            Node newNode = new Node(currentNode);
+            if (!newNode.isSuperOperator(operator)) {
+                throw new IllegalStateException("The operator " + operator + " is not applicable to " + currentNode);
+            }
+            currentNode = newNode;
+        }
+        return currentNode;
+    }
+
+    // Returns the length() + 1 states of the path. Every state is a new instance,
+    // and only the last one returned is referenced by the iterator.
+    @Override
+    public Iterator<AbstractState> iterator() {
+        return new Iterator<>() {
+            private AbstractState state; // The last state returned, null before the start state.
+            private int step;
+
+            @Override
+            public boolean hasNext() {
+                return step <= length();
+            }
+
+            @Override
+            public AbstractState next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (state == null) {
+                    state = getStartState();
+                } else {
+                    state = (AbstractState) state.clone();
+                    apply(state, getOperator(step - 1));
+                }
+                step++;
+                return state;
+            }
+        };
+    }
+
+    // The states of the path as a sequential stream, replayed lazily.
+    public Stream<AbstractState> states() {
+        return StreamSupport.stream(Spliterators.spliterator(iterator(), length() + 1L,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    // Writes the states of the path, one per line, while they are replayed.
+    public void writeTo(Appendable out) throws IOException {
+        for (AbstractState state : this) {
+            out.append(state.toString()).append(System.lineSeparator());
+        }
+    }
+
+    // Writes the states of the path as UTF-8 text, one per line, to the channel. The channel is not closed.
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+        writeTo(writer);
+        writer.flush();
+    }
+
+    private static void apply(AbstractState state, int operator) {
+        if (!state.isSuperOperator(operator)) {
+            throw new IllegalStateException("The operator " + operator + " is not applicable to " + state);
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof SolutionPath path)) {
+            return false;
+        }
+        // The operators are stored in bytes whenever they fit, so equal paths have the same representation.
+        return startState.equals(path.startState) && Arrays.equals(operators, path.operators)
+                && Arrays.equals(wideOperators, path.wideOperators);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * startState.hashCode() + (wideOperators != null ? Arrays.hashCode(wideOperators) : Arrays.hashCode(operators));
+    }
+
+    @Override
+    public String toString() {
+        return "SolutionPath[start=" + startState + ", operators=" + Arrays.toString(getOperators()) + "]";
+    }
+}
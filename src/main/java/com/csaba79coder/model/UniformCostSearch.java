@@ -0,0 +1,11 @@
+package com.csaba79coder.model;
+
+/**
+ * A class implementing uniform-cost search: best-first search with f = g.
+ * Every operator costs 1, so it returns a solution with the fewest operators.
+ */
+public class UniformCostSearch extends BestFirstSearch {
+    public UniformCostSearch(Node startNode) {
+        super(startNode, Heuristic.ZERO, 1, 0);
+    }
+}
@@ -0,0 +1,32 @@
+package com.csaba79coder.model;
+
+import java.util.function.LongConsumer;
+
+/**
+ * A set of nodes used by graph search algorithms for duplicate detection.
+ * Membership is decided by the states of the nodes, i.e., by Node.equals and Node.hashCode.
+ * Graph searches use it for the set of closed nodes and as a membership index of the open nodes.
+ * The implementation can be chosen per search, see HashVisitedSet, LinearVisitedSet and DenseVisitedSet.
+ * A CanonicalVisitedSet decorates another set to merge symmetric states.
+ */
+public interface VisitedSet {
+    // Adds the node to the set. Returns false if an equal node was already in the set.
+    boolean add(Node node);
+
+    // Returns true if an equal node is in the set.
+    boolean contains(Node node);
+
+    // Removes the equal node from the set. Returns false if there was no such node.
+    boolean remove(Node node);
+
+    // Returns the number of nodes in the set.
+    int size();
+
+    // Removes all nodes from the set.
+    void clear();
+
+    // Passes the code of the state of every node in the set to the action (see AbstractState.encode),
+    // e.g., to write the set into a snapshot (see DepthFirstSearch.writeSnapshot).
+    // It is only supported if the states support encoding.
+    void forEachCode(LongConsumer action);
+}